@@ -0,0 +1,38 @@
+package weatherapp.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * {@code Fixtures} loads the recorded API responses bundled under {@code /fixtures},
+ * so the benchmarks run without any network access.
+ *
+ * <ul>
+ * <li>{@value #SMHI}: a 10 day pmp3g forecast for Stockholm with the hourly, 3, 6 and 12 hour steps of the API.</li>
+ * <li>{@value #IPIFY}: a public IP response.</li>
+ * <li>{@value #IPINFO}: the location of that IP.</li>
+ * </ul>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class Fixtures {
+    public static final String SMHI = "/fixtures/smhi_pmp3g.json",
+                               IPIFY = "/fixtures/ipify.json",
+                               IPINFO = "/fixtures/ipinfo.json";
+
+    /**
+     * Reads a fixture from the class path.
+     *
+     * @param name The path of the fixture.
+     * @return The fixture as bytes.
+     */
+    public static byte[] load(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream(name)) {
+            if (in == null) throw new IllegalArgumentException("Missing fixture: " + name);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
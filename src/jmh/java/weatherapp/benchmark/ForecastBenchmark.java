@@ -0,0 +1,96 @@
+package weatherapp.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import weatherapp.model.Settings;
+import weatherapp.model.json.JSONReader;
+import weatherapp.model.weather.ForecastStore;
+import weatherapp.model.weather.SMHI;
+import weatherapp.model.weather.Timestamp;
+import weatherapp.model.weather.Weather;
+
+/**
+ * {@code ForecastBenchmark} measures the model layer on the recorded SMHI forecast.
+ *
+ * <ul>
+ * <li>{@code parseStreaming}, {@code parseTree}: {@code SMHI.getWeather10D} from the response bytes.</li>
+ * <li>{@code aggregate}: splitting a read forecast into days, which runs
+ * {@code findMaxMin}, {@code calcWindSpeed} and {@code findWeatherType} for every day.</li>
+ * <li>{@code format}: the {@code UnitConverter} strings of every day and timestamp.</li>
+ * </ul>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class ForecastBenchmark {
+    @Param({"true", "false"})
+    public boolean metric;
+
+    private byte[] response;
+    private SMHI smhi;
+    private ForecastStore store;
+    private List<Weather> weathers;
+
+    @Setup
+    public void setup() throws IOException {
+        response = Fixtures.load(Fixtures.SMHI);
+
+        Settings settings = new Settings(metric, true, true);
+        smhi = new SMHI(settings);
+        weathers = smhi.getWeather10D(new ByteArrayInputStream(response));
+        store = smhi.getStore();
+    }
+
+    @Benchmark
+    public List<Weather> parseStreaming() throws IOException {
+        return smhi.getWeather10D(new ByteArrayInputStream(response));
+    }
+
+    @Benchmark
+    public List<Weather> parseTree() throws IOException {
+        return smhi.getWeather10D(new JSONObject(JSONReader.readBody(new ByteArrayInputStream(response))));
+    }
+
+    @Benchmark
+    public List<Weather> aggregate() {
+        return smhi.getWeather10D(store);
+    }
+
+    @Benchmark
+    public void format(Blackhole bh) {
+        for (Weather weather : weathers) {
+            bh.consume(weather.getMaxT());
+            bh.consume(weather.getMinT());
+            bh.consume(weather.getWindSpeedAvg());
+            bh.consume(weather.getGustMax());
+
+            for (Timestamp timestamp : weather.getTimeStamps()) {
+                bh.consume(timestamp.getTemp());
+                bh.consume(timestamp.getWindSpeed());
+                bh.consume(timestamp.getGust());
+            }
+        }
+    }
+}
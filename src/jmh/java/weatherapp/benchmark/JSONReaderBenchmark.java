@@ -0,0 +1,59 @@
+package weatherapp.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import weatherapp.model.ip.IP;
+import weatherapp.model.ip.IPGrabber;
+import weatherapp.model.json.JSONReader;
+
+/**
+ * {@code JSONReaderBenchmark} measures reading the recorded responses with {@code JSONReader}.
+ *
+ * <ul>
+ * <li>{@code readSMHI}: reading the body of the SMHI forecast.</li>
+ * <li>{@code readIPInfo}: reading and parsing the IPify and IPInfo responses into an {@code IP}.</li>
+ * </ul>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class JSONReaderBenchmark {
+    private byte[] smhi, ipify, ipinfo;
+
+    @Setup
+    public void setup() {
+        smhi = Fixtures.load(Fixtures.SMHI);
+        ipify = Fixtures.load(Fixtures.IPIFY);
+        ipinfo = Fixtures.load(Fixtures.IPINFO);
+    }
+
+    @Benchmark
+    public String readSMHI() throws IOException {
+        return JSONReader.readBody(new ByteArrayInputStream(smhi));
+    }
+
+    @Benchmark
+    public IP readIPInfo() throws IOException {
+        String ipAdress = new JSONObject(JSONReader.readBody(new ByteArrayInputStream(ipify))).getString("ip");
+        return IPGrabber.readIP(ipAdress, new JSONObject(JSONReader.readBody(new ByteArrayInputStream(ipinfo))));
+    }
+}
@@ -0,0 +1,93 @@
+package weatherapp.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * {@code SMHIFixture} builds SMHI pmp3g responses of any size with the same layout as a recorded response.
+ * Every timestamp holds all 19 parameters in the order the API sends them, with {@code Wsymb2} last.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class SMHIFixture {
+    /**
+     * Parameters in the order of the API as name, level type, level and unit.
+     */
+    private static final String[][] PARAMETERS = {
+        {"spp", "hl", "0", "percent"},
+        {"pcat", "hl", "0", "category"},
+        {"pmin", "hl", "0", "kg/m2/h"},
+        {"pmean", "hl", "0", "kg/m2/h"},
+        {"pmax", "hl", "0", "kg/m2/h"},
+        {"pmedian", "hl", "0", "kg/m2/h"},
+        {"tcc_mean", "hl", "0", "octas"},
+        {"lcc_mean", "hl", "0", "octas"},
+        {"mcc_mean", "hl", "0", "octas"},
+        {"hcc_mean", "hl", "0", "octas"},
+        {"t", "hl", "2", "Cel"},
+        {"msl", "hmsl", "0", "hPa"},
+        {"vis", "hl", "2", "km"},
+        {"wd", "hl", "10", "degree"},
+        {"ws", "hl", "10", "m/s"},
+        {"r", "hl", "2", "percent"},
+        {"tstm", "hl", "0", "percent"},
+        {"gust", "hl", "10", "m/s"},
+        {"Wsymb2", "hl", "0", "category"}
+    };
+    /**
+     * Time of the first timestamp.
+     */
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 7, 11, 0);
+
+    /**
+     * Builds a response with the given amount of hourly timestamps.
+     *
+     * @param timestamps The amount of timestamps in {@code timeSeries}.
+     * @return The response as UTF-8 bytes.
+     */
+    public static byte[] generate(int timestamps) {
+        Random random = new Random(timestamps);
+        StringBuilder sb = new StringBuilder(timestamps * 1600);
+
+        sb.append("{\"approvedTime\":\"2024-09-07T10:04:43Z\",\"referenceTime\":\"2024-09-07T10:00:00Z\",");
+        sb.append("\"geometry\":{\"type\":\"Point\",\"coordinates\":[[18.062712,59.330431]]},");
+        sb.append("\"timeSeries\":[");
+
+        for (int i = 0; i < timestamps; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"validTime\":\"").append(START.plusHours(i)).append(":00Z\",\"parameters\":[");
+
+            for (int p = 0; p < PARAMETERS.length; p++) {
+                String[] param = PARAMETERS[p];
+                if (p > 0) sb.append(',');
+                sb.append("{\"name\":\"").append(param[0])
+                    .append("\",\"levelType\":\"").append(param[1])
+                    .append("\",\"level\":").append(param[2])
+                    .append(",\"unit\":\"").append(param[3])
+                    .append("\",\"values\":[").append(value(param[0], random)).append("]}");
+            }
+            sb.append("]}");
+        }
+
+        sb.append("]}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a plausible value for the parameter.
+     *
+     * @param name The name of the parameter.
+     * @param random The random source.
+     * @return The value as JSON text.
+     */
+    private static String value(String name, Random random) {
+        return switch (name) {
+            case "Wsymb2" -> String.valueOf(1 + random.nextInt(27));
+            case "pcat", "tcc_mean", "lcc_mean", "mcc_mean", "hcc_mean", "wd", "r", "tstm", "spp" -> String.valueOf(random.nextInt(100));
+            case "t" -> String.valueOf(Math.round((random.nextDouble() * 30 - 5) * 10) / 10.0);
+            case "msl" -> String.valueOf(Math.round((990 + random.nextDouble() * 40) * 10) / 10.0);
+            default -> String.valueOf(Math.round(random.nextDouble() * 150) / 10.0);
+        };
+    }
+}
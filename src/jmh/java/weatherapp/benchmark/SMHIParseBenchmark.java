@@ -0,0 +1,85 @@
+package weatherapp.benchmark;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import weatherapp.model.Settings;
+import weatherapp.model.json.JSONReader;
+import weatherapp.model.weather.SMHI;
+import weatherapp.model.weather.Weather;
+
+/**
+ * {@code SMHIParseBenchmark} compares the ways of turning an SMHI response into a forecast.
+ *
+ * <ul>
+ * <li>{@code legacy}: the old body reading with {@code String +=} followed by a full {@code JSONObject}.</li>
+ * <li>{@code tree}: buffered body reading followed by a full {@code JSONObject}.</li>
+ * <li>{@code streaming}: the stream is decoded one timestamp at a time.</li>
+ * </ul>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class SMHIParseBenchmark {
+    /**
+     * Amount of timestamps in the response, a 10 day forecast has about 70.
+     */
+    @Param({"35", "70", "140"})
+    public int timestamps;
+
+    private byte[] response;
+    private SMHI smhi;
+
+    @Setup
+    public void setup() {
+        response = SMHIFixture.generate(timestamps);
+        smhi = new SMHI(new Settings(true, false, true));
+    }
+
+    @Benchmark
+    public List<Weather> legacy() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(response), StandardCharsets.UTF_8))) {
+            String jsonText = "";
+            int c;
+
+            while ((c = reader.read()) != -1) {
+                jsonText += (char) c;
+            }
+
+            return smhi.getWeather10D(new JSONObject(jsonText));
+        }
+    }
+
+    @Benchmark
+    public List<Weather> tree() throws IOException {
+        return smhi.getWeather10D(new JSONObject(JSONReader.readBody(new ByteArrayInputStream(response))));
+    }
+
+    @Benchmark
+    public List<Weather> streaming() throws IOException {
+        return smhi.getWeather10D(new ByteArrayInputStream(response));
+    }
+}
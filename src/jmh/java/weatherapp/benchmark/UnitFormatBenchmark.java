@@ -0,0 +1,94 @@
+package weatherapp.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import weatherapp.model.Settings;
+import weatherapp.tools.UnitConverter;
+
+/**
+ * {@code UnitFormatBenchmark} compares the old {@code UnitConverter.getString} formatting,
+ * which converted all four variants and used {@code String.format}, with {@code UnitFormatter}.
+ * Every operation formats the temperature and wind speed of 256 forecast values.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class UnitFormatBenchmark {
+    @Param({"true", "false"})
+    public boolean metric;
+    @Param({"true", "false"})
+    public boolean precision;
+
+    private double[] temps, winds;
+    private Settings settings;
+    private UnitConverter converter;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        temps = new double[256];
+        winds = new double[256];
+
+        for (int i = 0; i < temps.length; i++) {
+            temps[i] = Math.round((random.nextDouble() * 40 - 10) * 10) / 10.0;
+            winds[i] = Math.round(random.nextDouble() * 200) / 10.0;
+        }
+
+        settings = new Settings(metric, precision, true);
+        converter = new UnitConverter(settings);
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        for (int i = 0; i < temps.length; i++) {
+            double t = temps[i], w = winds[i];
+            bh.consume(legacyString(t, (int) Math.round(t), t * 1.8 + 32, (int) Math.round(t * 1.8 + 32), true));
+            bh.consume(legacyString(w, (int) Math.round(w), w * UnitConverter.MPH, (int) Math.round(w * UnitConverter.MPH), false));
+        }
+    }
+
+    @Benchmark
+    public void formatter(Blackhole bh) {
+        for (int i = 0; i < temps.length; i++) {
+            bh.consume(converter.getTemp(temps[i]));
+            bh.consume(converter.getWind(winds[i]));
+        }
+    }
+
+    /**
+     * The body of the old {@code UnitConverter.getString}.
+     */
+    private String legacyString(double doubleMetric, int intMetric, double doubleImperial, int intImperial, boolean isTemp) {
+        String valueString;
+        String unit;
+
+        if (settings.isMetric()) {
+            valueString = settings.hasPrecision() ? String.format("%.1f", doubleMetric) : String.valueOf(intMetric);
+            unit = isTemp ? "°C" : " m/s";
+        } else {
+            valueString = settings.hasPrecision() ? String.format("%.1f", doubleImperial) : String.valueOf(intImperial);
+            unit = isTemp ? "°F" : " mph";
+        }
+
+        return valueString + unit;
+    }
+}
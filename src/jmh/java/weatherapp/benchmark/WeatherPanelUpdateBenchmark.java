@@ -0,0 +1,80 @@
+package weatherapp.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import weatherapp.model.Settings;
+import weatherapp.model.weather.ForecastStore;
+import weatherapp.model.weather.Weather;
+import weatherapp.ui.panel.WeatherPanel;
+
+/**
+ * {@code WeatherPanelUpdateBenchmark} measures the latency of a precision toggle on one
+ * {@code WeatherPanel} with an increasing amount of hourly rows.
+ * {@code rebuild} builds the whole panel, which is what a toggle used to cost.
+ * A toggle gives the panel the same day in the other precision, a collapsed panel only marks
+ * its hourly labels as stale and an expanded panel relabels them in place.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dlog4j.configurationFile=log4j2-benchmark.xml"})
+public class WeatherPanelUpdateBenchmark {
+    /**
+     * Amount of hourly rows in the panel.
+     */
+    @Param({"6", "24", "96"})
+    public int rows;
+    /**
+     * Whether the panel is expanded, so the hourly labels are rewritten by every toggle.
+     */
+    @Param({"false", "true"})
+    public boolean expanded;
+
+    private Weather weather, precise;
+    private boolean toggled;
+    private WeatherPanel panel;
+
+    @Setup
+    public void setup() {
+        ForecastStore store = new ForecastStore();
+        long start = LocalDateTime.of(2024, 9, 7, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < rows; i++) {
+            store.add(start + i * 3600L, i * 0.37 - 4, i * 0.11, i * 0.23, 1 + i % 27);
+        }
+
+        weather = new Weather(store, 0, rows, new Settings(true, false, true));
+        precise = new Weather(store, 0, rows, new Settings(true, true, true));
+        panel = new WeatherPanel(weather);
+        panel.setExpanded(expanded);
+    }
+
+    @Benchmark
+    public WeatherPanel rebuild() {
+        return new WeatherPanel(weather);
+    }
+
+    @Benchmark
+    public WeatherPanel togglePrecision() {
+        toggled = !toggled;
+        panel.update(toggled ? precise : weather);
+        return panel;
+    }
+}
@@ -0,0 +1,58 @@
+package weatherapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import weatherapp.enums.WeatherDay;
+import weatherapp.enums.WeatherNight;
+import weatherapp.model.weather.Timestamp;
+
+/**
+ * {@code WeatherTypeBenchmark} measures the lookup of the weather type of a symbol.
+ * Every operation looks up all 27 symbols of the SMHI {@code Wsymb2} parameter.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j.configurationFile=log4j2-benchmark.xml")
+public class WeatherTypeBenchmark {
+    /**
+     * Amount of weather symbols.
+     */
+    private static final int SYMBOLS = 27;
+
+    @Benchmark
+    public void weatherDay(Blackhole bh) {
+        for (int symbol = 1; symbol <= SYMBOLS; symbol++) {
+            bh.consume(WeatherDay.getWeather(symbol));
+        }
+    }
+
+    @Benchmark
+    public void weatherNight(Blackhole bh) {
+        for (int symbol = 1; symbol <= SYMBOLS; symbol++) {
+            bh.consume(WeatherNight.getWeather(symbol));
+        }
+    }
+
+    @Benchmark
+    public void timestamp(Blackhole bh) {
+        for (int symbol = 1; symbol <= SYMBOLS; symbol++) {
+            bh.consume(Timestamp.getWeatherType(symbol, symbol % 24));
+        }
+    }
+}
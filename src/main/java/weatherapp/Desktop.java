@@ -0,0 +1,125 @@
+package weatherapp;
+
+import java.awt.Dimension;
+import java.beans.PropertyChangeEvent;
+import java.io.IOException;
+import java.time.Duration;
+
+import com.formdev.flatlaf.themes.FlatMacDarkLaf;
+import com.formdev.flatlaf.themes.FlatMacLightLaf;
+
+import weatherapp.enums.Changes;
+import weatherapp.model.Model;
+import weatherapp.tools.IconCache;
+import weatherapp.ui.app.App;
+import weatherapp.ui.app.ControlPanel;
+import weatherapp.ui.app.MainPanel;
+import weatherapp.ui.app.TopBarPanel;
+import weatherapp.ui.logic.EdtDispatcher;
+import weatherapp.ui.logic.EdtWatchdog;
+
+import javax.swing.JComponent;
+import javax.swing.LookAndFeel;
+import javax.swing.UIManager;
+import javax.swing.UnsupportedLookAndFeelException;
+
+import static weatherapp.tools.FileTools.getImage;
+import javax.swing.JOptionPane;
+
+/**
+ * {@code Desktop} runs the application in a window.
+ * It is used to set settings and create the instances of the window.
+ * <p>
+ * It is only loaded when the application is started with a window,
+ * so no Swing classes are loaded when it is run headless.
+ * 
+ * @author Axel Lönnby Wesselgren
+ */
+public class Desktop {
+    /**
+     * The path to the icon image resource
+     */
+    private final static String ICON_PATH = "/cloud.png";
+    /**
+     * The title of the application
+     */
+    private final static String TITLE = "Weather App";
+    /**
+     * The dimension of the application window
+     */
+    private final static Dimension DIMENSION = new Dimension(960, 540);
+    /**
+     * A boolean that indicates if the application window is resizable
+     */
+    private final static boolean RESIZABLE = false;
+    /**
+     * The location of the application window
+     */
+    private final static JComponent LOCATION = null;
+    /**
+     * The look and feel to use for dark mode
+     */
+    private final static LookAndFeel DARK_MODE = new FlatMacDarkLaf();
+    /**
+     * The look and feel to use for light mode
+     */
+    private final static LookAndFeel LIGHT_MODE = new FlatMacLightLaf();
+    /**
+     * The time between the automatic refreshes of the weather data
+     */
+    private final static Duration REFRESH_INTERVAL = Duration.ofHours(1);
+
+    /**
+     * Creates the window with the default settings on the EDT and starts the refreshes.
+     */
+    public static void start() {
+        IconCache.warmUp();
+        Model model = new Model();
+
+        EdtDispatcher.onEdt(() -> createWindow(model));
+    }
+
+    /**
+     * Creates the window, registers it on the model and requests the first refresh.
+     * Must be called on the EDT.
+     * 
+     * @param model The model of the window
+     */
+    private static void createWindow(Model model) {
+        try {
+            UIManager.setLookAndFeel(DARK_MODE);
+        } catch (UnsupportedLookAndFeelException e) {}
+
+        ControlPanel controlPanel = new ControlPanel(model);
+        TopBarPanel topBarPanel = new TopBarPanel(model);
+        MainPanel mainPanel = new MainPanel(model);
+
+        App app = new App(controlPanel, topBarPanel, mainPanel) {
+            @Override
+            public void propertyChange(PropertyChangeEvent evt) {
+                switch (Changes.valueOf(evt.getPropertyName())) {
+                    case SETTINGS_UPDATED -> setTheme(model.getSettings().isDarkMode());
+                    default -> {}
+                }
+            }
+        };
+        app.setTitle(TITLE);
+        try {
+            app.setIconImage(getImage(ICON_PATH));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null, "Icon image not found", "Missing image", JOptionPane.WARNING_MESSAGE);
+        }
+        app.setPreferredSize(DIMENSION);
+        app.setResizable(RESIZABLE);
+        app.setLocationRelativeTo(LOCATION);
+        app.init();
+
+        model.addPropertyChangeListener(EdtDispatcher.onEdt(app));
+        EdtWatchdog.startDefault();
+
+        EdtDispatcher.offEdt(() -> {
+            model.requestRefresh();
+            model.scheduleRefresh(REFRESH_INTERVAL);
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package weatherapp.enums;
+
+/**
+ * {@code CircuitState} is an enum that contains the states of a {@code CircuitBreaker}.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public enum CircuitState {
+    /**
+     * The endpoint works, every request is sent.
+     */
+    CLOSED,
+    /**
+     * The endpoint has failed repeatedly, requests are rejected without being sent.
+     */
+    OPEN,
+    /**
+     * The endpoint is being tried again, one trial request is sent and the others are rejected.
+     */
+    HALF_OPEN
+}
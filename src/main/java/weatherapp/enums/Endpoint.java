@@ -0,0 +1,116 @@
+package weatherapp.enums;
+
+/**
+ * {@code Endpoint} is an enum that contains the upstream APIs of the application.
+ *
+ * <p>
+ * The base URL of every endpoint can be replaced with the system property
+ * {@code weatherapp.endpoint.<name>}, eg. to point the application at a {@code StubUpstream}.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public enum Endpoint {
+    /**
+     * The public IP of the user.
+     */
+    IPIFY("ipify", "https://api.ipify.org"),
+    /**
+     * The location of an IP.
+     */
+    IPINFO("ipinfo", "https://ipinfo.io"),
+    /**
+     * The forecasts of SMHI.
+     */
+    SMHI("smhi", "https://opendata-download-metfcst.smhi.se");
+
+    /**
+     * Prefix of the system properties that replace the base URLs.
+     */
+    public static final String PROPERTY_PREFIX = "weatherapp.endpoint.";
+
+    /**
+     * Name of the endpoint in the system property and the metrics.
+     */
+    private final String name;
+    /**
+     * The base URL of the real API.
+     */
+    private final String defaultUrl;
+
+    /**
+     * Constructor for the enum.
+     *
+     * @param name The name of the endpoint.
+     * @param defaultUrl The base URL of the real API, without a trailing slash.
+     */
+    private Endpoint(String name, String defaultUrl) {
+        this.name = name;
+        this.defaultUrl = defaultUrl;
+    }
+
+    /**
+     * Get the endpoint based on its name.
+     *
+     * @param name The name of the endpoint, eg. {@code smhi}.
+     * @return The endpoint corresponding to the name.
+     * @throws IllegalArgumentException if there is no endpoint with the name.
+     */
+    public static Endpoint getEndpoint(String name) {
+        for (Endpoint e : Endpoint.values()) {
+            if (e.name.equalsIgnoreCase(name)) return e;
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + name);
+    }
+
+    /**
+     * Get the endpoint a URL belongs to.
+     *
+     * @param url The requested URL.
+     * @return The endpoint whose base URL the URL starts with, {@code null} if there is none.
+     */
+    public static Endpoint forUrl(String url) {
+        for (Endpoint e : Endpoint.values()) {
+            if (url.startsWith(e.getBaseUrl())) return e;
+        }
+        return null;
+    }
+
+    /**
+     * Get the base URL, from the system property if it is set.
+     *
+     * @return The base URL without a trailing slash.
+     */
+    public String getBaseUrl() {
+        String url = System.getProperty(getProperty());
+        if (url == null || url.isBlank()) return defaultUrl;
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Get the base URL of the real API.
+     *
+     * @return The default base URL.
+     */
+    public String getDefaultUrl() {
+        return defaultUrl;
+    }
+
+    /**
+     * Get the system property that replaces the base URL.
+     *
+     * @return The name of the property.
+     */
+    public String getProperty() {
+        return PROPERTY_PREFIX + name;
+    }
+
+    /**
+     * Get the name of the endpoint.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,55 @@
+package weatherapp.enums;
+
+/**
+ * {@code OutputFormat} is an enum that contains the formats
+ * a forecast can be written in when the application is run headless.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public enum OutputFormat {
+    /**
+     * One JSON document with every location, its days and timestamps.
+     */
+    JSON("json"),
+    /**
+     * One CSV row per timestamp and location, preceded by a header row.
+     */
+    CSV("csv");
+
+    /**
+     * Name of the format on the command line.
+     */
+    private final String name;
+
+    /**
+     * Constructor for the enum.
+     *
+     * @param name The name of the format on the command line.
+     */
+    private OutputFormat(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the format based on its name on the command line.
+     *
+     * @param name The name of the format, eg. {@code json}.
+     * @return The format corresponding to the name.
+     * @throws IllegalArgumentException if there is no format with the name.
+     */
+    public static OutputFormat getFormat(String name) {
+        for (OutputFormat f : OutputFormat.values()) {
+            if (f.name.equalsIgnoreCase(name)) return f;
+        }
+        throw new IllegalArgumentException("Unknown format: " + name);
+    }
+
+    /**
+     * Get the name of the format on the command line.
+     *
+     * @return The name of the format.
+     */
+    public String getName() {
+        return name;
+    }
+}
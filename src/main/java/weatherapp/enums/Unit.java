@@ -0,0 +1,79 @@
+package weatherapp.enums;
+
+/**
+ * {@code Unit} is an enum that contains the units a value can be displayed in.
+ *
+ * <p>
+ * Every enum constant contains the suffix shown after the value and
+ * the conversion from the unit the API uses, Celsius and m/s.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public enum Unit {
+    CELSIUS("°C", 1, 0),
+    FAHRENHEIT("°F", 1.8, 32),
+    METERS_PER_SECOND(" m/s", 1, 0),
+    MILES_PER_HOUR(" mph", 2.23694, 0);
+
+    /**
+     * Suffix shown after the value.
+     */
+    private final String suffix;
+    /**
+     * Factor and offset of the conversion from the API unit.
+     */
+    private final double factor, offset;
+
+    /**
+     * Constructor for the enum.
+     *
+     * @param suffix The suffix shown after the value.
+     * @param factor The factor the API value is multiplied by.
+     * @param offset The offset added after the multiplication.
+     */
+    private Unit(String suffix, double factor, double offset) {
+        this.suffix = suffix;
+        this.factor = factor;
+        this.offset = offset;
+    }
+
+    /**
+     * Converts a value from the API unit to this unit.
+     *
+     * @param value The value in Celsius or m/s.
+     * @return The value in this unit.
+     */
+    public double convert(double value) {
+        return value * factor + offset;
+    }
+
+    /**
+     * Get the suffix shown after the value.
+     *
+     * @return The suffix of the unit.
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Get the temperature unit of the system.
+     *
+     * @param metric If the metric system is used.
+     * @return Celsius if metric, Fahrenheit otherwise.
+     */
+    public static Unit temperature(boolean metric) {
+        return metric ? CELSIUS : FAHRENHEIT;
+    }
+
+    /**
+     * Get the speed unit of the system.
+     *
+     * @param metric If the metric system is used.
+     * @return m/s if metric, mph otherwise.
+     */
+    public static Unit speed(boolean metric) {
+        return metric ? METERS_PER_SECOND : MILES_PER_HOUR;
+    }
+}
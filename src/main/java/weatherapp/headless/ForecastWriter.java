@@ -0,0 +1,189 @@
+package weatherapp.headless;
+
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import weatherapp.enums.OutputFormat;
+import weatherapp.enums.Unit;
+import weatherapp.interfaces.WeatherType;
+import weatherapp.model.Settings;
+import weatherapp.model.weather.Timestamp;
+import weatherapp.model.weather.Weather;
+
+/**
+ * {@code ForecastWriter} is a class that writes forecasts of one or more locations as JSON or CSV.
+ *
+ * <p>
+ * Values are written as numbers in the units of the settings, with one decimal
+ * if the settings have precision and rounded to whole numbers otherwise.
+ * Times are UTC, the same as the API.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class ForecastWriter {
+    /**
+     * Format the forecasts are written in.
+     */
+    private final OutputFormat format;
+    /**
+     * Settings that decide the units and precision.
+     */
+    private final Settings settings;
+    /**
+     * Every written location as JSON.
+     */
+    private final JSONArray locations;
+    /**
+     * Every written row as CSV.
+     */
+    private final StringBuilder csv;
+
+    /**
+     * Constructs a {@code ForecastWriter} with the given format and settings.
+     *
+     * @param format Format the forecasts are written in.
+     * @param settings Settings that decide the units and precision.
+     */
+    public ForecastWriter(OutputFormat format, Settings settings) {
+        this.format = format;
+        this.settings = settings;
+
+        locations = new JSONArray();
+        csv = new StringBuilder("lat,lon,date,time,temp (")
+            .append(temperature().getSuffix().strip()).append("),wind speed (")
+            .append(speed().getSuffix().strip()).append("),gust (")
+            .append(speed().getSuffix().strip()).append("),symbol\n");
+    }
+
+    /**
+     * Adds the forecast of a location.
+     *
+     * @param lat Latitude of the location.
+     * @param lon Longitude of the location.
+     * @param weathers The forecast, one {@code Weather} per day.
+     */
+    public void add(double lat, double lon, List<Weather> weathers) {
+        switch (format) {
+            case JSON -> addJSON(lat, lon, weathers);
+            case CSV -> addCSV(lat, lon, weathers);
+        }
+    }
+
+    /**
+     * Adds the forecast of a location as a JSON object with the days and their timestamps.
+     *
+     * @param lat Latitude of the location.
+     * @param lon Longitude of the location.
+     * @param weathers The forecast, one {@code Weather} per day.
+     */
+    private void addJSON(double lat, double lon, List<Weather> weathers) {
+        JSONArray days = new JSONArray();
+
+        for (Weather weather : weathers) {
+            JSONArray timestamps = new JSONArray();
+            for (Timestamp timestamp : weather.getTimeStamps()) {
+                timestamps.put(new JSONObject()
+                    .put("time", weather.getDate() + "T" + timestamp.getTime() + "Z")
+                    .put("temp", round(temperature().convert(timestamp.getTempC())))
+                    .put("windSpeed", round(speed().convert(timestamp.getWindSpeedD())))
+                    .put("gust", round(speed().convert(timestamp.getGustD())))
+                    .put("symbol", symbol(timestamp.getWeatherType())));
+            }
+
+            days.put(new JSONObject()
+                .put("date", weather.getDate().toString())
+                .put("minTemp", round(temperature().convert(weather.getMinTC())))
+                .put("maxTemp", round(temperature().convert(weather.getMaxTC())))
+                .put("windSpeed", round(speed().convert(weather.getWindSpeedAvgD())))
+                .put("gust", round(speed().convert(weather.getGustMaxD())))
+                .put("symbol", symbol(weather.getWeatherType()))
+                .put("timestamps", timestamps));
+        }
+
+        locations.put(new JSONObject()
+            .put("lat", lat)
+            .put("lon", lon)
+            .put("days", days));
+    }
+
+    /**
+     * Adds the forecast of a location as one CSV row per timestamp.
+     *
+     * @param lat Latitude of the location.
+     * @param lon Longitude of the location.
+     * @param weathers The forecast, one {@code Weather} per day.
+     */
+    private void addCSV(double lat, double lon, List<Weather> weathers) {
+        for (Weather weather : weathers) {
+            for (Timestamp timestamp : weather.getTimeStamps()) {
+                csv.append(lat).append(',')
+                    .append(lon).append(',')
+                    .append(weather.getDate()).append(',')
+                    .append(timestamp.getTime()).append(',')
+                    .append(round(temperature().convert(timestamp.getTempC()))).append(',')
+                    .append(round(speed().convert(timestamp.getWindSpeedD()))).append(',')
+                    .append(round(speed().convert(timestamp.getGustD()))).append(',')
+                    .append(symbol(timestamp.getWeatherType())).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Rounds a value to one decimal if the settings have precision, otherwise to a whole number.
+     *
+     * @param value The value to round.
+     * @return The rounded value.
+     */
+    private Number round(double value) {
+        if (settings.hasPrecision()) return Math.round(value * 10) / 10.0;
+        return Math.round(value);
+    }
+
+    /**
+     * Returns the id of the weather type.
+     *
+     * @param type The weather type, {@code null} if the symbol is unknown.
+     * @return The id of the weather type, 0 if it is unknown.
+     */
+    private static int symbol(WeatherType type) {
+        return type == null ? 0 : type.getId();
+    }
+
+    /**
+     * Returns the temperature unit of the settings.
+     *
+     * @return The temperature unit.
+     */
+    private Unit temperature() {
+        return Unit.temperature(settings.isMetric());
+    }
+    /**
+     * Returns the speed unit of the settings.
+     *
+     * @return The speed unit.
+     */
+    private Unit speed() {
+        return Unit.speed(settings.isMetric());
+    }
+
+    /**
+     * Returns every added forecast in the format of the writer.
+     *
+     * @return The forecasts as JSON or CSV.
+     */
+    @Override
+    public String toString() {
+        return switch (format) {
+            case JSON -> new JSONObject()
+                .put("units", new JSONObject()
+                    .put("temperature", temperature().getSuffix().strip())
+                    .put("speed", speed().getSuffix().strip()))
+                .put("locations", locations)
+                .toString(2) + "\n";
+            case CSV -> csv.toString();
+        };
+    }
+}
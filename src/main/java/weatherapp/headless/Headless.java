@@ -0,0 +1,133 @@
+package weatherapp.headless;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.enums.OutputFormat;
+import weatherapp.model.Model;
+import weatherapp.model.Settings;
+import weatherapp.model.engine.EngineReport;
+import weatherapp.model.engine.ForecastEngine;
+import weatherapp.model.engine.LocationForecast;
+import weatherapp.model.ip.IP;
+
+/**
+ * {@code Headless} runs the application without a window and writes the forecasts to standard out.
+ *
+ * <p>
+ * Usage: {@code --headless [--format=json|csv] [--imperial] [--precision] [--parallelism=n] [lat,lon ...]}
+ * </p>
+ *
+ * <p>
+ * The coordinates are fetched concurrently by a {@code ForecastEngine} of the {@code Model},
+ * so the disk cache is used the same way as in the window. The latency of every coordinate
+ * and the throughput are logged. Without coordinates the location of the public IP is used.
+ * No Swing classes are loaded, the logs are written to standard error so they don't mix with the forecasts.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class Headless {
+    /**
+     * The argument that starts the application headless.
+     */
+    public static final String ARGUMENT = "--headless";
+
+    private static final Logger logger = LogManager.getLogger(Headless.class);
+
+    /**
+     * Reads the forecasts of the arguments and writes them to standard out.
+     *
+     * @param args the command line arguments
+     * @return The exit status, 0 if every forecast was read.
+     */
+    public static int run(String[] args) {
+        OutputFormat format = OutputFormat.JSON;
+        boolean metric = true, precision = false;
+        int parallelism = ForecastEngine.DEFAULT_PARALLELISM;
+        List<double[]> coordinates = new ArrayList<>();
+
+        try {
+            for (String arg : args) {
+                if (arg.equals(ARGUMENT)) continue;
+                else if (arg.startsWith("--format=")) format = OutputFormat.getFormat(arg.substring("--format=".length()));
+                else if (arg.equals("--imperial")) metric = false;
+                else if (arg.equals("--precision")) precision = true;
+                else if (arg.startsWith("--parallelism=")) parallelism = parsePositive(arg.substring("--parallelism=".length()));
+                else coordinates.add(parseCoordinate(arg));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: " + ARGUMENT + " [--format=json|csv] [--imperial] [--precision] [--parallelism=n] [lat,lon ...]");
+            return 2;
+        }
+
+        Settings settings = new Settings(metric, precision, true);
+        Model model = new Model(settings);
+        ForecastWriter writer = new ForecastWriter(format, settings);
+
+        if (coordinates.isEmpty()) {
+            try {
+                IP ip = model.locate();
+                coordinates.add(new double[] {ip.getLon(), ip.getLat()});
+            } catch (IOException e) {
+                logger.error("Failed to grab IP: {}", e.getMessage());
+                return 1;
+            }
+        }
+
+        EngineReport report;
+        try {
+            report = model.createEngine(parallelism).fetchAll(coordinates);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+
+        for (LocationForecast forecast : report.getForecasts()) {
+            if (forecast.succeeded()) writer.add(forecast.lat(), forecast.lon(), forecast.weathers());
+        }
+        logger.info("Latencies:\n{}", report.latencies());
+
+        System.out.print(writer);
+        System.out.flush();
+        return report.getFailed() == 0 ? 0 : 1;
+    }
+
+    /**
+     * Parses a positive number.
+     *
+     * @param arg The number.
+     * @return The number.
+     * @throws IllegalArgumentException if the number is not valid or not positive.
+     */
+    private static int parsePositive(String arg) {
+        try {
+            int n = Integer.parseInt(arg);
+            if (n > 0) return n;
+        } catch (NumberFormatException e) {}
+        throw new IllegalArgumentException("Invalid number: " + arg);
+    }
+
+    /**
+     * Parses a coordinate written as {@code lat,lon}.
+     *
+     * @param arg The coordinate.
+     * @return The longitude and latitude.
+     * @throws IllegalArgumentException if the coordinate is not valid.
+     */
+    private static double[] parseCoordinate(String arg) {
+        String[] parts = arg.split(",");
+        if (parts.length != 2) throw new IllegalArgumentException("Invalid coordinate: " + arg);
+
+        try {
+            return new double[] {Double.parseDouble(parts[1].strip()), Double.parseDouble(parts[0].strip())};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid coordinate: " + arg);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package weatherapp.interfaces;
+
+/**
+ * {@code Animated} is an interface for components that are animated by the shared {@code Animator}.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public interface Animated {
+
+    /**
+     * Advances the animation to the given time, called on the Event Dispatch Thread once per frame.
+     *
+     * @param nowNanos The time of the frame from {@link System#nanoTime()}.
+     * @return {@code true} if the animation needs more frames.
+     */
+    boolean animate(long nowNanos);
+}
@@ -0,0 +1,15 @@
+package weatherapp.interfaces;
+
+/**
+ * {@code CounterMXBean} is the management interface of a {@code Counter}.
+ * 
+ * @author Axel Lönnby Wesselgren
+ */
+public interface CounterMXBean {
+    /**
+     * Returns the count.
+     * 
+     * @return The sum of every increment.
+     */
+    long getCount();
+}
@@ -0,0 +1,15 @@
+package weatherapp.interfaces;
+
+/**
+ * {@code GaugeMXBean} is the management interface of a {@code Gauge}.
+ * 
+ * @author Axel Lönnby Wesselgren
+ */
+public interface GaugeMXBean {
+    /**
+     * Returns the current value.
+     * 
+     * @return The value read when it is requested.
+     */
+    double getValue();
+}
@@ -0,0 +1,16 @@
+package weatherapp.interfaces;
+
+/**
+ * {@code HistogramMXBean} is the management interface of a {@code Histogram}.
+ * The latencies are in milliseconds.
+ * 
+ * @author Axel Lönnby Wesselgren
+ */
+public interface HistogramMXBean {
+    long getCount();
+    double getMeanMillis();
+    double getMaxMillis();
+    double getP50Millis();
+    double getP95Millis();
+    double getP99Millis();
+}
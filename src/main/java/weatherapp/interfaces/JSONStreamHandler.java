@@ -0,0 +1,33 @@
+package weatherapp.interfaces;
+
+import org.json.JSONObject;
+
+/**
+ * {@code JSONStreamHandler} is an interface that receives the parts of a JSON object
+ * as they are read from a stream.
+ *
+ * <p>
+ * The fields of the top level object are passed to {@link #field(String, Object)}
+ * and the elements of the streamed array are passed one at a time to
+ * {@link #element(JSONObject)}, so the whole document is never held in memory.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public interface JSONStreamHandler {
+
+    /**
+     * Called for every top level field that is not the streamed array.
+     *
+     * @param key The key of the field.
+     * @param value The value of the field, as returned by {@code JSONTokener.nextValue()}.
+     */
+    void field(String key, Object value);
+
+    /**
+     * Called for every element of the streamed array, in order.
+     *
+     * @param element The element as a {@code JSONObject}.
+     */
+    void element(JSONObject element);
+}
@@ -0,0 +1,18 @@
+package weatherapp.interfaces;
+
+import java.time.LocalTime;
+
+/**
+ * {@code TickListener} is an interface for components that are driven by the wall clock.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public interface TickListener {
+
+    /**
+     * Called on the Event Dispatch Thread when a new second or minute has started.
+     *
+     * @param now The current time, truncated to the unit the listener subscribed with.
+     */
+    void tick(LocalTime now);
+}
@@ -0,0 +1,43 @@
+package weatherapp.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import weatherapp.interfaces.CounterMXBean;
+
+/**
+ * {@code Counter} is a metric that only goes up, eg. an amount of requests or bytes.
+ * It can be incremented from many threads without contention.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class Counter implements CounterMXBean {
+    /**
+     * The count.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Increments the count by one.
+     */
+    public void increment() {
+        count.increment();
+    }
+    /**
+     * Increments the count.
+     *
+     * @param amount The amount to add.
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(getCount());
+    }
+}
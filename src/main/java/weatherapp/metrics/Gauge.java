@@ -0,0 +1,47 @@
+package weatherapp.metrics;
+
+import java.util.Locale;
+import java.util.function.DoubleSupplier;
+
+import weatherapp.interfaces.GaugeMXBean;
+
+/**
+ * {@code Gauge} is a metric that is read when it is requested, eg. the amount of forecasts in memory.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class Gauge implements GaugeMXBean {
+    /**
+     * Reads the value.
+     */
+    private volatile DoubleSupplier supplier;
+
+    /**
+     * Constructs a {@code Gauge}.
+     *
+     * @param supplier Reads the value.
+     */
+    Gauge(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Replaces what the value is read from, eg. when the measured object is created again.
+     *
+     * @param supplier Reads the value.
+     */
+    void setSupplier(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public double getValue() {
+        return supplier.getAsDouble();
+    }
+
+    @Override
+    public String toString() {
+        double value = getValue();
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.2f", value);
+    }
+}
@@ -0,0 +1,145 @@
+package weatherapp.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import weatherapp.interfaces.HistogramMXBean;
+
+/**
+ * {@code Histogram} is a metric that records latencies in nanoseconds.
+ *
+ * <p>
+ * The latencies are counted in buckets that grow exponentially, every power of two is split
+ * into {@value #SUB_BUCKETS} buckets, so a percentile is at most 12.5 % above the recorded latency.
+ * Recording is a few atomic increments and never allocates.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class Histogram implements HistogramMXBean {
+    /**
+     * Buckets per power of two, and its logarithm.
+     */
+    private static final int SUB_BUCKETS = 8, SUB_BITS = 3;
+    /**
+     * Amount of buckets, enough for every positive {@code long}.
+     */
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    /**
+     * Amount of latencies in every bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    /**
+     * Amount and sum of the latencies.
+     */
+    private final LongAdder count = new LongAdder(), sum = new LongAdder();
+    /**
+     * The longest latency.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        buckets.incrementAndGet(bucket(nanos));
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+    /**
+     * Records the time since a start.
+     *
+     * @param startNanos The start from {@link System#nanoTime()}.
+     * @return The recorded latency in nanoseconds.
+     */
+    public long recordSince(long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        record(nanos);
+        return nanos;
+    }
+
+    /**
+     * Returns a percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, 0 to 100.
+     * @return The upper bound of the bucket of the percentile in milliseconds, 0 if nothing is recorded.
+     */
+    public double getPercentileMillis(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += buckets.get(i);
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total)), seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get()) / 1_000_000.0;
+        }
+        return max.get() / 1_000_000.0;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+    @Override
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / (double) n / 1_000_000.0;
+    }
+    @Override
+    public double getMaxMillis() {
+        return max.get() / 1_000_000.0;
+    }
+    @Override
+    public double getP50Millis() {
+        return getPercentileMillis(50);
+    }
+    @Override
+    public double getP95Millis() {
+        return getPercentileMillis(95);
+    }
+    @Override
+    public double getP99Millis() {
+        return getPercentileMillis(99);
+    }
+
+    /**
+     * Returns the bucket of a latency.
+     *
+     * @param nanos The latency, not negative.
+     * @return The index of the bucket.
+     */
+    private static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+    /**
+     * Returns the largest latency of a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The upper bound in nanoseconds.
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1, sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "count %d, mean %.2f ms, p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms",
+            getCount(), getMeanMillis(), getP50Millis(), getP95Millis(), getP99Millis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,175 @@
+package weatherapp.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * {@code Metrics} is the registry of the metrics of the application.
+ *
+ * <p>
+ * Metrics are created the first time they are requested by name, and then shared by every caller.
+ * Every metric is registered as an MXBean named {@code weatherapp:type=<Type>,name=<name>},
+ * so it can be read with eg. JConsole or VisualVM while the application runs.
+ * </p>
+ *
+ * <p>
+ * If the system property {@value #INTERVAL_PROPERTY} is set to an amount of seconds,
+ * a snapshot of every metric is logged with that interval, see {@link #startReporting()}.
+ * </p>
+ *
+ * <p>
+ * Names are dotted and start with the part of the application they measure:
+ * </p>
+ * <ul>
+ * <li>{@code refresh.*}: the refreshes of the {@code Model}.</li>
+ * <li>{@code ip.*}, {@code geo.*}: the IP and location lookups.</li>
+ * <li>{@code smhi.*}, {@code weather.*}: the forecast downloads, parsing and splitting into days.</li>
+ * <li>{@code ui.*}: building and publishing the panels.</li>
+ * <li>{@code http.*}: the circuit breakers of the endpoints.</li>
+ * <li>{@code server.*}, {@code service.*}, {@code fetcher.*}: the forecast server.</li>
+ * </ul>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class Metrics {
+    /**
+     * System property with the seconds between the logged snapshots.
+     */
+    public static final String INTERVAL_PROPERTY = "weatherapp.metrics.interval";
+    /**
+     * Domain of the MXBeans.
+     */
+    private static final String DOMAIN = "weatherapp";
+
+    /**
+     * Every metric by name.
+     */
+    private static final Map<String, Object> metrics = new ConcurrentHashMap<>();
+    /**
+     * Logs the snapshots, {@code null} until the reporting is started.
+     */
+    private static ScheduledExecutorService reporter;
+
+    private static final Logger logger = LogManager.getLogger(Metrics.class);
+
+    /**
+     * Returns the counter with the given name, it is created if it does not exist.
+     *
+     * @param name The name of the counter.
+     * @return The {@code Counter}.
+     */
+    public static Counter counter(String name) {
+        return get(name, Counter.class, Counter::new);
+    }
+    /**
+     * Returns the histogram with the given name, it is created if it does not exist.
+     *
+     * @param name The name of the histogram.
+     * @return The {@code Histogram}.
+     */
+    public static Histogram histogram(String name) {
+        return get(name, Histogram.class, Histogram::new);
+    }
+    /**
+     * Registers a gauge, an existing gauge with the same name reads from the new supplier instead.
+     *
+     * @param name The name of the gauge.
+     * @param supplier Reads the value.
+     * @return The {@code Gauge}.
+     */
+    public static Gauge gauge(String name, DoubleSupplier supplier) {
+        Gauge gauge = get(name, Gauge.class, () -> new Gauge(supplier));
+        gauge.setSupplier(supplier);
+        return gauge;
+    }
+
+    /**
+     * Returns the metric with the given name, it is created and registered if it does not exist.
+     *
+     * @param <T> The type of the metric.
+     * @param name The name of the metric.
+     * @param type The type of the metric.
+     * @param factory Creates the metric.
+     * @return The metric.
+     * @throws IllegalArgumentException if a metric of another type has the name.
+     */
+    private static <T> T get(String name, Class<T> type, Supplier<T> factory) {
+        Object metric = metrics.get(name);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(name, n -> {
+                T created = factory.get();
+                register(n, type, created);
+                return created;
+            });
+        }
+
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is a " + metric.getClass().getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    /**
+     * Registers a metric as an MXBean, a failure is logged and the metric is still used.
+     *
+     * @param name The name of the metric.
+     * @param type The type of the metric.
+     * @param metric The metric.
+     */
+    private static void register(String name, Class<?> type, Object metric) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type.getSimpleName() + ",name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) server.unregisterMBean(objectName);
+            server.registerMBean(metric, objectName);
+        } catch (JMException e) {
+            logger.warn("Could not register metric {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the value of every metric, one line per metric sorted by name.
+     *
+     * @return The snapshot as text.
+     */
+    public static String snapshot() {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(metrics).forEach((name, metric) -> sb.append(name).append(": ").append(metric).append('\n'));
+        return sb.toString();
+    }
+
+    /**
+     * Starts logging a snapshot every {@value #INTERVAL_PROPERTY} seconds,
+     * nothing is logged if the property is not set.
+     * The snapshots are logged by a daemon thread, so they never keep the application running.
+     */
+    public static synchronized void startReporting() {
+        if (reporter != null) return;
+
+        long interval;
+        try {
+            interval = Long.parseLong(System.getProperty(INTERVAL_PROPERTY));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (interval <= 0) return;
+
+        reporter = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("metrics").daemon().factory());
+        reporter.scheduleAtFixedRate(() -> logger.info("Metrics\n{}", snapshot()), interval, interval, TimeUnit.SECONDS);
+        logger.info("Logging metrics every {} s", interval);
+    }
+}
@@ -0,0 +1,59 @@
+package weatherapp.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import weatherapp.model.ip.IP;
+import weatherapp.model.weather.ForecastStore;
+import weatherapp.model.weather.GridPoint;
+import weatherapp.model.weather.Timestamp;
+import weatherapp.model.weather.Weather;
+
+/**
+ * {@code ForecastSnapshot} is the immutable result of one refresh.
+ *
+ * <p>
+ * A snapshot is built completely before it is published by the {@code Model}, and is never changed after,
+ * so it can be read by any thread and shared by every view without locking.
+ * The lists can't be modified, and the forecast they are read from is not written after it has been read.
+ * The days are built with their own copy of the settings, so a change of the settings
+ * publishes a new snapshot of the same forecast instead of changing the days of this one.
+ * </p>
+ *
+ * @param location The location of the user, {@code null} before the first refresh.
+ * @param store The forecast the days are read from, {@code null} before the first refresh.
+ * @param gridPoint The grid cell of the forecast, {@code null} if it is not known.
+ * @param issued The time SMHI approved the forecast, {@code null} if it is not known.
+ * @param days The forecast as one {@code Weather} per day.
+ * @param hours Every timestamp of the forecast, in the order of the days.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public record ForecastSnapshot(IP location, ForecastStore store, GridPoint gridPoint, Instant issued, List<Weather> days, List<Timestamp> hours) {
+    /**
+     * The snapshot before the first refresh, without a location or days.
+     */
+    public static final ForecastSnapshot EMPTY = new ForecastSnapshot(null, null, null, null, List.of(), List.of());
+
+    /**
+     * Constructs a {@code ForecastSnapshot}, the lists are copied.
+     */
+    public ForecastSnapshot {
+        days = List.copyOf(days);
+        hours = List.copyOf(hours);
+    }
+
+    /**
+     * Creates a snapshot of a read forecast.
+     *
+     * @param location The location of the user.
+     * @param store The forecast.
+     * @param days The forecast split into days.
+     * @return The {@code ForecastSnapshot}.
+     */
+    public static ForecastSnapshot of(IP location, ForecastStore store, List<Weather> days) {
+        Instant issued = store.getApprovedTime() != 0 ? Instant.ofEpochSecond(store.getApprovedTime()) : null;
+        List<Timestamp> hours = days.stream().flatMap(day -> day.getTimeStamps().stream()).toList();
+        return new ForecastSnapshot(location, store, store.getGridPoint(), issued, days, hours);
+    }
+}
@@ -1,21 +1,32 @@
 package weatherapp.model;
 
 import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 import java.io.IOException;
-
-import javax.swing.event.SwingPropertyChangeSupport;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import weatherapp.enums.Changes;
+import weatherapp.metrics.Counter;
+import weatherapp.metrics.Histogram;
+import weatherapp.metrics.Metrics;
+import weatherapp.model.cache.AppData;
+import weatherapp.model.cache.ForecastCache;
+import weatherapp.model.engine.ForecastEngine;
 import weatherapp.model.ip.IP;
+import weatherapp.model.ip.IPCache;
 import weatherapp.model.ip.IPGrabber;
+import weatherapp.model.refresh.RefreshScheduler;
+import weatherapp.model.refresh.RetryPolicy;
+import weatherapp.model.service.ForecastFetcher;
+import weatherapp.model.weather.ForecastStore;
 import weatherapp.model.weather.SMHI;
+import weatherapp.model.weather.GridIndex;
 import weatherapp.model.weather.Weather;
-import weatherapp.ui.panel.WeatherPanel;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -23,19 +34,26 @@ import java.util.List;
  * It is responsible for fetching weather data from the SMHI API and IP data from
  * the IPGrabber class. It also holds the settings for the application.
  * 
- * <p>The class implements the {@code Runnable} interface to run a thread that
- * refreshes the weather upon request. And reruns it every 5 seconds if it fails.
+ * <p>The class implements the {@code Runnable} interface to refresh the weather.
+ * The refreshes are run by a {@code RefreshScheduler} upon request or periodically,
+ * and a failed refresh is retried after the delay of a {@code RetryPolicy}, from the step that failed.
+ * 
+ * <p>Every refresh publishes an immutable {@code ForecastSnapshot} through an {@code AtomicReference},
+ * so the views read a complete forecast from any thread without locking.
  * 
- * <p>It also uses the {@code SwingPropertyChangeSupport} class to notify the
+ * <p>It also uses the {@code PropertyChangeSupport} class to notify the
  * Views of any changes in the data.
  * 
+ * <p>The model only produces forecast data, no Swing classes are used,
+ * so it can also be run headless.
+ * 
  * @author Axel Lönnby Wesselgren
  */
 public class Model implements Runnable {
     /**
-     * The {@code SwingPropertyChangeSupport} object that notifies the Views of any changes.
+     * The {@code PropertyChangeSupport} object that notifies the Views of any changes.
      */
-    private final SwingPropertyChangeSupport pcs;
+    private final PropertyChangeSupport pcs;
     /**
      * The {@code SMHI} instance that fetches the 10 day weather forecast.
      */
@@ -45,22 +63,42 @@ public class Model implements Runnable {
      */
     private final Settings settings;
     /**
-     * The {@code Thread} object that runs the refresh loop.
+     * The {@code RefreshScheduler} that runs the refreshes.
      */
-    private final Thread thread;
+    private final RefreshScheduler scheduler;
     /**
-     * The list of {@code WeatherPanel} objects that holds the weather data.
+     * The {@code RetryPolicy} that decides the delay before a failed refresh is retried.
      */
-    private List<WeatherPanel> weatherPanelsAdv;
+    private final RetryPolicy retryPolicy;
     /**
-     * The {@code IP} of the user.
+     * The forecast of the last refresh, replaced as a whole when a refresh is completed.
      */
-    private IP ip;
-    
+    private final AtomicReference<ForecastSnapshot> snapshot;
+    /**
+     * The {@code IP} of the user, resolved before the forecast is refreshed.
+     */
+    private volatile IP ip;
+    /**
+     * The cache of the resolved {@code IP}, reused across refreshes and restarts.
+     */
+    private final IPCache ipCache;
+    /**
+     * Reads the forecasts through the disk cache, shared with the created engines.
+     */
+    private final ForecastFetcher fetcher;
+
     /**
-     * The boolean that tells the thread to refresh the weather data.
+     * The time a resolved location is reused while the network is the same.
      */
-    private volatile boolean refresh;
+    private static final Duration LOCATION_TTL = Duration.ofDays(1);
+    /**
+     * Time of a refresh from the start to the published forecast, including the retries.
+     */
+    private static final Histogram REFRESH = Metrics.histogram("refresh.total");
+    /**
+     * Amount of refreshes and amount of failed attempts.
+     */
+    private static final Counter REFRESHES = Metrics.counter("refresh.count"), FAILURES = Metrics.counter("refresh.failures");
 
     private static final Logger logger = LogManager.getLogger(Model.class);
     
@@ -72,7 +110,7 @@ public class Model implements Runnable {
      *  <li>Precision: {@code false}</li>
      *  <li>Dark mode: {@code true}</li>
      * </ul>
-     * Thread is started upon construction.
+     * No refresh is run until it is requested.
      */
     public Model() {
         this(
@@ -92,13 +130,13 @@ public class Model implements Runnable {
     public Model(Settings settings) {
         this.settings = settings;
 
-        thread = new Thread(this);
-
-        pcs = new SwingPropertyChangeSupport(this);
+        pcs = new PropertyChangeSupport(this);
         smhi = new SMHI(settings);
-        weatherPanelsAdv = new ArrayList<>();
-
-        thread.start();
+        fetcher = new ForecastFetcher(ForecastCache.createDefault(), GridIndex.createDefault());
+        ipCache = new IPCache(AppData.getDirectory().resolve("location.properties"), LOCATION_TTL);
+        snapshot = new AtomicReference<>(ForecastSnapshot.EMPTY);
+        scheduler = new RefreshScheduler(this);
+        retryPolicy = RetryPolicy.createDefault();
     }
 
     /**
@@ -111,7 +149,9 @@ public class Model implements Runnable {
         pcs.firePropertyChange(change.getChange(), !newValue, newValue);
     }
     /**
-     * Add the view to the {@code SwingPropertyChangeSupport} object.
+     * Add the view to the {@code PropertyChangeSupport} object.
+     * The events are fired on the thread that changed the model, usually a refresh thread,
+     * a view that touches Swing has to move them to the EDT itself.
      * 
      * @param listener The view to add
      */
@@ -119,7 +159,7 @@ public class Model implements Runnable {
         pcs.addPropertyChangeListener(listener);
     }
     /**
-     * Remove the view from the {@code SwingPropertyChangeSupport} object.
+     * Remove the view from the {@code PropertyChangeSupport} object.
      * 
      * @param listener The view to remove
      */
@@ -131,38 +171,100 @@ public class Model implements Runnable {
      * Requests a refresh of the application including IP and weather data.
      */
     public void requestRefresh() {
-        refresh = true;
+        scheduler.request();
         logger.info("Refreshing weather data");
         pcs.firePropertyChange(Changes.REFRESHING.getChange(), null, null);
     }
+    /**
+     * Requests a refresh every {@code interval}, replacing any earlier schedule.
+     * 
+     * @param interval The time between the refreshes
+     */
+    public void scheduleRefresh(Duration interval) {
+        scheduler.schedule(interval);
+    }
 
     /**
-     * Refreshes the weather data.
+     * Refreshes the weather data and publishes it as a new {@code ForecastSnapshot}.
      * 
      * @throws IOException if the IP or weather data could not be fetched eg. no internet connection
      */
     private void refresh() throws IOException {
-        String URL = SMHI.generateURL(ip.getLon(), ip.getLat());
-        smhi.setSettings(settings);
-        List<Weather> weathers = smhi.getWeather10D(URL);
+        IP location = ip;
+        ForecastStore store = fetcher.fetch(location.getLon(), location.getLat());
+        ForecastSnapshot next = publish(location, store);
 
-        weatherPanelsAdv.clear();
-        for (Weather w : weathers) {
-            weatherPanelsAdv.add(new WeatherPanel(w));
-        }
+        logger.info("\n{}{}", location.toString(), fetcher.snap(location.getLon(), location.getLat()));
+        pcs.firePropertyChange(Changes.REFRESHED.getChange(), null, next);
+    }
+
+    /**
+     * Returns the 10 day forecast for the given coordinates using the settings of the model.
+     * The forecast is read from the disk cache when it is fresh.
+     * 
+     * @param lon longitude
+     * @param lat latitude
+     * @return The forecast as one {@code Weather} per day.
+     * @throws IOException if the weather data could not be fetched or read.
+     */
+    public List<Weather> getForecast(double lon, double lat) throws IOException {
+        return split(fetcher.fetch(lon, lat));
+    }
 
-        logger.info("\n{}{}", ip.toString(), URL);
-        pcs.firePropertyChange(Changes.REFRESHED.getChange(), null, ip);
+    /**
+     * Splits a forecast into days with a copy of the current settings of the model,
+     * so the days are not changed when the settings are switched.
+     * 
+     * @param store The forecast.
+     * @return The forecast as one {@code Weather} per day, the list can't be modified.
+     */
+    private synchronized List<Weather> split(ForecastStore store) {
+        smhi.setSettings(settings.copy());
+        return smhi.getWeather10D(store);
     }
 
     /**
-     * Grabs the Public IP of the user and then the full IP.
+     * Splits a forecast with the current settings and publishes it as the new {@code ForecastSnapshot}.
+     * The lock keeps a refresh from publishing days with settings that were switched while it was split.
+     * 
+     * @param location The location of the forecast.
+     * @param store The forecast.
+     * @return The published {@code ForecastSnapshot}.
+     */
+    private synchronized ForecastSnapshot publish(IP location, ForecastStore store) {
+        ForecastSnapshot next = ForecastSnapshot.of(location, store, split(store));
+        snapshot.set(next);
+        return next;
+    }
+
+    /**
+     * Publishes the forecast of the current snapshot again with the current settings.
+     * Nothing is published before the first refresh.
+     */
+    private synchronized void republish() {
+        ForecastSnapshot current = snapshot.get();
+        if (current.store() != null) publish(current.location(), current.store());
+    }
+
+    /**
+     * Creates a {@code ForecastEngine} that fetches many locations concurrently
+     * with the settings and fetcher of the model.
+     * 
+     * @param parallelism The most locations fetched at the same time
+     * @return The new {@code ForecastEngine}.
+     */
+    public ForecastEngine createEngine(int parallelism) {
+        return new ForecastEngine(settings, fetcher, parallelism);
+    }
+
+    /**
+     * Grabs the full IP of the user, from the cache if the network has not changed.
+     * A refresh is requested if the public IP turns out to have changed.
      * 
      * @throws IOException if the IP could not be fetched eg. no internet connection
      */
     private void grabIP() throws IOException {
-        String ipAdress = IPGrabber.grabIpAdress();
-        ip = IPGrabber.grabFullIP(ipAdress);
+        ip = IPGrabber.grabIP(ipCache, this::requestRefresh);
     }
 
     /**
@@ -176,19 +278,25 @@ public class Model implements Runnable {
     /**
      * Changes the precision of the units displayed.
      * From either double to int or int to double.
+     * The forecast is published again as a new snapshot with the new precision.
      */
     public void togglePrecision() {
-        settings.switchPrecision();
-        weatherPanelsAdv.forEach(w -> w.update(settings));
+        synchronized (this) {
+            settings.switchPrecision();
+            republish();
+        }
         fireChange(settings.hasPrecision(), Changes.SETTINGS_UPDATED);
     }
     /**
      * Change the system of the units displayed.
      * From either metric to imperial or imperial to metric.
+     * The forecast is published again as a new snapshot in the new units.
      */
     public void toggleMetric() {
-        settings.switchMetric();
-        weatherPanelsAdv.forEach(w -> w.update(settings));
+        synchronized (this) {
+            settings.switchMetric();
+            republish();
+        }
         fireChange(settings.isMetric(), Changes.SETTINGS_UPDATED);
     }
     
@@ -201,12 +309,30 @@ public class Model implements Runnable {
         return settings;
     }
     /**
-     * Returns the list of {@code WeatherPanel} objects.
+     * Returns the forecast of the last refresh.
      * 
-     * @return The list of {@code WeatherPanel} objects.
+     * @return The published {@code ForecastSnapshot}, {@code ForecastSnapshot.EMPTY} before the first refresh.
      */
-    public List<WeatherPanel> getWeatherPanelsAdv() {
-        return weatherPanelsAdv;
+    public ForecastSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+    /**
+     * Returns the 10 day forecast of the last refresh.
+     * 
+     * @return The forecast as one {@code Weather} per day, the list can't be modified.
+     */
+    public List<Weather> getWeathers() {
+        return snapshot.get().days();
+    }
+    /**
+     * Grabs the IP of the user, from the cache if the network has not changed.
+     * 
+     * @return The IP of the user.
+     * @throws IOException if the IP could not be fetched eg. no internet connection
+     */
+    public IP locate() throws IOException {
+        grabIP();
+        return ip;
     }
     /**
      * Returns the IP of the user.
@@ -216,39 +342,62 @@ public class Model implements Runnable {
     public IP getIp() {
         return ip;
     }
+    /**
+     * Returns the scheduler that runs the refreshes.
+     * 
+     * @return The {@code RefreshScheduler} of the model.
+     */
+    public RefreshScheduler getScheduler() {
+        return scheduler;
+    }
 
     /**
-     * The run method of the thread that refreshes the weather data.
+     * Performs one refresh, it is run by the {@code RefreshScheduler}.
      * It grabs the IP and then refreshes the weather data.
-     * If it fails it retries every 5 seconds.
+     * If a step fails it is retried, without redoing the steps before it,
+     * after an exponentially growing delay until it succeeds or is interrupted.
      */
     @Override
     public void run() {
-        while (!Thread.interrupted()) {
-            if (refresh) {
-                try {
+        long start = System.nanoTime();
+        boolean located = false;
+        int attempt = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (!located) {
                     grabIP();
-                } catch (IOException e) {
-                    logger.error("Failed to grab IP");
-                    logger.info("Retrying in 5 seconds");
-                    try {
-                        Thread.sleep(5000);
-                        continue;
-                    } catch (InterruptedException e1) {}
+                    located = true;
+                    attempt = 0;
                 }
-                
-                try {
-                    refresh();
-                } catch (IOException e) {
-                    logger.error("Failed to refresh weather data");
-                    logger.info("Retrying in 5 seconds");
-                    try {
-                        Thread.sleep(5000);
-                        continue;
-                    } catch (InterruptedException e1) {}
-                }
-                refresh = false;
+
+                refresh();
+                REFRESH.recordSince(start);
+                REFRESHES.increment();
+                return;
+            } catch (IOException e) {
+                FAILURES.increment();
+                Duration delay = retryPolicy.delay(attempt++, e);
+                logger.error("Failed to {}: {}", located ? "refresh weather data" : "grab IP", e.getMessage());
+                logger.info("Retrying in {} ms", delay.toMillis());
+                if (!retryDelay(delay)) return;
             }
         }
     }
+
+    /**
+     * Waits before a retry.
+     * 
+     * @param delay The time to wait
+     * @return {@code false} if the wait was interrupted, {@code true} otherwise
+     */
+    private boolean retryDelay(Duration delay) {
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 }
\ No newline at end of file
@@ -6,7 +6,7 @@ package weatherapp.model;
  * @author Axel Lönnby Wesselgren
  */
 public class Settings {
-    private boolean metric, precision, darkMode;
+    private volatile boolean metric, precision, darkMode;
 
     public Settings(boolean isMetric, boolean hasPrecision, boolean darkMode) {
         this.metric = isMetric;
@@ -33,4 +33,13 @@ public class Settings {
     public boolean isDarkMode() {
         return darkMode;
     }
+
+    /**
+     * Returns a copy of the settings that is not changed when these settings are switched.
+     * 
+     * @return The copy.
+     */
+    public Settings copy() {
+        return new Settings(metric, precision, darkMode);
+    }
 }
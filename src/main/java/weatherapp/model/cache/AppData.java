@@ -0,0 +1,39 @@
+package weatherapp.model.cache;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * {@code AppData} is a class that knows where the application stores its data on the user's machine.
+ * It only uses {@code java.nio}, so the headless mode can use it without loading AWT.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class AppData {
+    /**
+     * Returns the directory where the application stores its data.
+     * <ul>
+     * <li>Windows: {@code %LOCALAPPDATA%\WeatherApp}</li>
+     * <li>macOS: {@code ~/Library/Caches/WeatherApp}</li>
+     * <li>Others: {@code $XDG_CACHE_HOME/weatherapp} or {@code ~/.cache/weatherapp}</li>
+     * </ul>
+     * The directory is not created.
+     *
+     * @return The path to the application data directory.
+     */
+    public static Path getDirectory() {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        String home = System.getProperty("user.home");
+
+        if (os.contains("win")) {
+            String localAppData = System.getenv("LOCALAPPDATA");
+            return Path.of(localAppData != null ? localAppData : home, "WeatherApp");
+        }
+        if (os.contains("mac")) {
+            return Path.of(home, "Library", "Caches", "WeatherApp");
+        }
+
+        String xdgCache = System.getenv("XDG_CACHE_HOME");
+        return Path.of(xdgCache != null ? xdgCache : Path.of(home, ".cache").toString(), "weatherapp");
+    }
+}
@@ -0,0 +1,258 @@
+package weatherapp.model.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.model.weather.ForecastStore;
+import weatherapp.model.weather.GridPoint;
+
+/**
+ * {@code ForecastCache} is a class that keeps forecasts on disk, one file per grid point.
+ *
+ * <p>
+ * A forecast is written as a small gzip compressed binary file holding the approved time,
+ * the reference time, the grid cell and the columns of the {@code ForecastStore}. Valid times are written
+ * as differences to the previous point, since they are an hour or a few hours apart.
+ * </p>
+ *
+ * <p>
+ * A forecast is fresh for the time to live after it was written, after that it is deleted
+ * the next time it is read. Failing to read or write the cache is logged and treated as a miss,
+ * it never fails a refresh. A file written in another version of the format is deleted when it is read.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class ForecastCache {
+    /**
+     * Identifies a forecast file, "WFC" and the version of the format.
+     */
+    private static final int MAGIC = 0x57464303;
+    /**
+     * Prefix and suffix of the forecast files.
+     */
+    private static final String PREFIX = "forecast_", SUFFIX = ".bin.gz";
+    /**
+     * Time a forecast is used after it was written, SMHI publishes a new forecast about every hour.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    /**
+     * The directory of the forecast files.
+     */
+    private final Path directory;
+    /**
+     * Time a forecast is used after it was written.
+     */
+    private final Duration ttl;
+
+    private static final Logger logger = LogManager.getLogger(ForecastCache.class);
+
+    /**
+     * Constructs a {@code ForecastCache} in the given directory.
+     * The directory is created when the first forecast is written.
+     *
+     * @param directory The directory of the forecast files.
+     * @param ttl Time a forecast is used after it was written.
+     */
+    public ForecastCache(Path directory, Duration ttl) {
+        this.directory = directory;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Creates the cache of the application in the app data directory
+     * with the default time to live, and deletes the expired forecasts.
+     *
+     * @return The {@code ForecastCache} of the application.
+     */
+    public static ForecastCache createDefault() {
+        ForecastCache cache = new ForecastCache(AppData.getDirectory().resolve("forecasts"), DEFAULT_TTL);
+        cache.purgeExpired();
+        return cache;
+    }
+
+    /**
+     * Returns the cached forecast of the grid point if it is still fresh.
+     *
+     * @param point The grid point.
+     * @return The forecast, or {@code null} if it is missing, expired or unreadable.
+     */
+    public ForecastStore get(GridPoint point) {
+        Path file = file(point);
+        boolean otherFormat;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            otherFormat = in.readInt() != MAGIC;
+            if (!otherFormat && System.currentTimeMillis() - in.readLong() <= ttl.toMillis()) return read(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Unreadable forecast cache {}: {}", file, e.getMessage());
+            return null;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+            if (otherFormat) logger.info("Deleted forecast cache of another format: {}", file);
+        } catch (IOException e) {
+            logger.warn("Could not delete forecast cache {}: {}", file, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Writes the forecast of the grid point, replacing any earlier forecast.
+     *
+     * @param point The grid point.
+     * @param store The forecast.
+     */
+    public void put(GridPoint point, ForecastStore store) {
+        Path file = file(point);
+
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, PREFIX, ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tmp))))) {
+                out.writeInt(MAGIC);
+                out.writeLong(System.currentTimeMillis());
+                write(out, store);
+            }
+
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write forecast cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes every forecast that is no longer fresh.
+     *
+     * @return The amount of deleted forecasts.
+     */
+    public int purgeExpired() {
+        int deleted = 0;
+        if (!Files.isDirectory(directory)) return deleted;
+
+        long oldest = System.currentTimeMillis() - ttl.toMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < oldest && Files.deleteIfExists(file)) deleted++;
+            }
+        } catch (IOException e) {
+            logger.warn("Could not purge forecast cache: {}", e.getMessage());
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the file of the grid point.
+     *
+     * @param point The grid point.
+     * @return The path to the forecast file.
+     */
+    private Path file(GridPoint point) {
+        return directory.resolve(PREFIX + point.id() + SUFFIX);
+    }
+
+    /**
+     * Writes the store after the header.
+     *
+     * @param out The stream to write to.
+     * @param store The forecast.
+     * @throws IOException if the forecast can't be written.
+     */
+    private static void write(DataOutputStream out, ForecastStore store) throws IOException {
+        int size = store.size();
+
+        out.writeLong(store.getApprovedTime());
+        out.writeLong(store.getReferenceTime());
+
+        GridPoint cell = store.getGridPoint();
+        out.writeBoolean(cell != null);
+        if (cell != null) {
+            out.writeDouble(cell.lon());
+            out.writeDouble(cell.lat());
+        }
+
+        out.writeInt(size);
+
+        long previous = size > 0 ? store.getValidTime(0) : 0;
+        out.writeLong(previous);
+        for (int i = 1; i < size; i++) {
+            out.writeInt((int) (store.getValidTime(i) - previous));
+            previous = store.getValidTime(i);
+        }
+
+        for (int i = 0; i < size; i++) out.writeDouble(store.getTemp(i));
+        for (int i = 0; i < size; i++) out.writeDouble(store.getWindSpeed(i));
+        for (int i = 0; i < size; i++) out.writeDouble(store.getGust(i));
+        for (int i = 0; i < size; i++) out.writeByte(store.getSymbol(i));
+    }
+
+    /**
+     * Reads the store after the header.
+     *
+     * @param in The stream to read from.
+     * @return The forecast.
+     * @throws IOException if the forecast can't be read.
+     */
+    private static ForecastStore read(DataInputStream in) throws IOException {
+        ForecastStore store = new ForecastStore();
+        store.setApprovedTime(in.readLong());
+        store.setReferenceTime(in.readLong());
+        if (in.readBoolean()) store.setGridPoint(new GridPoint(in.readDouble(), in.readDouble()));
+
+        int size = in.readInt();
+        if (size <= 0) throw new IOException("Empty forecast");
+
+        long[] validTimes = new long[size];
+        validTimes[0] = in.readLong();
+        for (int i = 1; i < size; i++) validTimes[i] = validTimes[i - 1] + in.readInt();
+
+        double[] temps = readDoubles(in, size), windSpeeds = readDoubles(in, size), gusts = readDoubles(in, size);
+
+        for (int i = 0; i < size; i++) {
+            store.add(validTimes[i], temps[i], windSpeeds[i], gusts[i], in.readByte());
+        }
+
+        store.trim();
+        return store;
+    }
+
+    /**
+     * Reads a column of doubles.
+     *
+     * @param in The stream to read from.
+     * @param size The amount of doubles.
+     * @return The column.
+     * @throws IOException if the column can't be read.
+     */
+    private static double[] readDoubles(DataInputStream in, int size) throws IOException {
+        double[] column = new double[size];
+        for (int i = 0; i < size; i++) column[i] = in.readDouble();
+        return column;
+    }
+}
@@ -0,0 +1,142 @@
+package weatherapp.model.engine;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code EngineReport} is the result of one run of the {@code ForecastEngine}.
+ * It holds the forecast of every location in the order they were given,
+ * the latency of every location and the throughput of the whole run.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class EngineReport {
+    /**
+     * The forecast of every location.
+     */
+    private final List<LocationForecast> forecasts;
+    /**
+     * Time of the whole run.
+     */
+    private final long wallNanos;
+    /**
+     * The most forecasts fetched at the same time.
+     */
+    private final int parallelism;
+    /**
+     * Latencies of the successful fetches in ascending order.
+     */
+    private final long[] latencies;
+
+    /**
+     * Constructs an {@code EngineReport}.
+     *
+     * @param forecasts The forecast of every location.
+     * @param wallNanos Time of the whole run.
+     * @param parallelism The most forecasts fetched at the same time.
+     */
+    public EngineReport(List<LocationForecast> forecasts, long wallNanos, int parallelism) {
+        this.forecasts = List.copyOf(forecasts);
+        this.wallNanos = wallNanos;
+        this.parallelism = parallelism;
+
+        latencies = forecasts.stream()
+            .filter(LocationForecast::succeeded)
+            .mapToLong(LocationForecast::latencyNanos)
+            .sorted()
+            .toArray();
+    }
+
+    /**
+     * Returns the forecast of every location in the order they were given.
+     *
+     * @return The forecasts.
+     */
+    public List<LocationForecast> getForecasts() {
+        return forecasts;
+    }
+    /**
+     * Returns the amount of forecasts that were read.
+     *
+     * @return The amount of successful fetches.
+     */
+    public int getSucceeded() {
+        return latencies.length;
+    }
+    /**
+     * Returns the amount of forecasts that could not be read.
+     *
+     * @return The amount of failed fetches.
+     */
+    public int getFailed() {
+        return forecasts.size() - latencies.length;
+    }
+    /**
+     * Returns the time of the whole run.
+     *
+     * @return Time of the run in milliseconds.
+     */
+    public double getWallMillis() {
+        return wallNanos / 1_000_000.0;
+    }
+    /**
+     * Returns the amount of forecasts read per second over the whole run.
+     *
+     * @return The throughput in forecasts per second.
+     */
+    public double getThroughput() {
+        if (wallNanos == 0) return 0;
+        return latencies.length / (wallNanos / 1_000_000_000.0);
+    }
+    /**
+     * Returns a percentile of the latencies of the successful fetches.
+     *
+     * @param percentile The percentile, 0 to 100.
+     * @return The latency in milliseconds, 0 if no fetch succeeded.
+     */
+    public double getLatencyMillis(double percentile) {
+        if (latencies.length == 0) return 0;
+
+        int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+        return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1_000_000.0;
+    }
+
+    /**
+     * Returns a summary of the run.
+     *
+     * @return The amount of locations, the throughput and the latency percentiles.
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+            "%d locations (%d failed) in %.1f ms with parallelism %d, %.1f forecasts/s, latency p50 %.1f ms, p95 %.1f ms, max %.1f ms",
+            forecasts.size(), getFailed(), getWallMillis(), parallelism, getThroughput(),
+            getLatencyMillis(50), getLatencyMillis(95), getLatencyMillis(100)
+        );
+    }
+
+    /**
+     * Returns the latency of every location, one line per location.
+     *
+     * @return The latencies as text.
+     */
+    public String latencies() {
+        StringBuilder sb = new StringBuilder();
+        for (LocationForecast f : forecasts) {
+            sb.append(String.format(Locale.ROOT, "lon %.4f, lat %.4f: %.1f ms", f.lon(), f.lat(), f.latencyMillis()));
+            if (!f.succeeded()) sb.append(" FAILED ").append(f.error());
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the latencies of the successful fetches in ascending order.
+     *
+     * @return A copy of the latencies in nanoseconds.
+     */
+    public long[] getLatencies() {
+        return Arrays.copyOf(latencies, latencies.length);
+    }
+}
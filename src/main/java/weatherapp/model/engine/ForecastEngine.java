@@ -0,0 +1,144 @@
+package weatherapp.model.engine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.model.Settings;
+import weatherapp.model.service.ForecastFetcher;
+import weatherapp.model.weather.SMHI;
+import weatherapp.model.weather.Weather;
+
+/**
+ * {@code ForecastEngine} is a class that fetches the forecasts of many locations concurrently.
+ *
+ * <p>
+ * Every location is fetched and split into days on its own virtual thread with its own {@code SMHI},
+ * since an {@code SMHI} holds the state of the forecast it reads. A semaphore bounds how many
+ * locations are fetched at the same time, the other threads wait without holding a carrier thread.
+ * The requests share the connections of the {@code HttpTransport} and a {@code ForecastFetcher},
+ * so locations that snap to the same grid point are only fetched once.
+ * </p>
+ *
+ * <p>
+ * Every run returns an {@code EngineReport} with the latency of every location and the throughput of the run.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class ForecastEngine {
+    /**
+     * Default amount of locations fetched at the same time.
+     */
+    public static final int DEFAULT_PARALLELISM = 16;
+
+    /**
+     * Settings of the read forecasts.
+     */
+    private final Settings settings;
+    /**
+     * Reads the forecasts of the locations.
+     */
+    private final ForecastFetcher fetcher;
+    /**
+     * The most locations fetched at the same time.
+     */
+    private final int parallelism;
+
+    private static final Logger logger = LogManager.getLogger(ForecastEngine.class);
+
+    /**
+     * Constructs a {@code ForecastEngine}.
+     *
+     * @param settings Settings of the read forecasts.
+     * @param fetcher Reads the forecasts of the locations.
+     * @param parallelism The most locations fetched at the same time.
+     */
+    public ForecastEngine(Settings settings, ForecastFetcher fetcher, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+
+        this.settings = settings;
+        this.fetcher = fetcher;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Fetches the forecast of every location and waits until all are done.
+     * A location that fails does not stop the others, its error is in the report.
+     *
+     * @param coordinates The locations as {@code {lon, lat}}.
+     * @return The report of the run, with the forecasts in the order of the locations.
+     * @throws InterruptedException if the thread is interrupted while waiting, the fetches are then interrupted
+     *                              and the interrupt status of the thread is kept.
+     */
+    public EngineReport fetchAll(List<double[]> coordinates) throws InterruptedException {
+        Semaphore permits = new Semaphore(parallelism);
+        List<Future<LocationForecast>> futures = new ArrayList<>(coordinates.size());
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("forecast-", 0).factory())) {
+            for (double[] c : coordinates) {
+                futures.add(executor.submit(() -> fetch(c[0], c[1], permits)));
+            }
+
+            List<LocationForecast> forecasts = new ArrayList<>(futures.size());
+            try {
+                for (Future<LocationForecast> future : futures) {
+                    forecasts.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+
+            EngineReport report = new EngineReport(forecasts, System.nanoTime() - start, parallelism);
+            logger.info(report);
+            return report;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Fetches the forecast of one location once a permit is free.
+     *
+     * @param lon Longitude of the location.
+     * @param lat Latitude of the location.
+     * @param permits The permits that bound the parallelism.
+     * @return The forecast of the location.
+     * @throws InterruptedException if the thread is interrupted while waiting for a permit.
+     */
+    private LocationForecast fetch(double lon, double lat, Semaphore permits) throws InterruptedException {
+        permits.acquire();
+        long start = System.nanoTime();
+
+        try {
+            List<Weather> weathers = new SMHI(settings).getWeather10D(fetcher.fetch(lon, lat));
+
+            return new LocationForecast(lon, lat, weathers, System.nanoTime() - start, null);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to read forecast for lon {}, lat {}: {}", lon, lat, e.toString());
+            return new LocationForecast(lon, lat, List.of(), System.nanoTime() - start, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns the most locations fetched at the same time.
+     *
+     * @return The parallelism of the engine.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+}
@@ -0,0 +1,36 @@
+package weatherapp.model.engine;
+
+import java.util.List;
+
+import weatherapp.model.weather.Weather;
+
+/**
+ * {@code LocationForecast} is the result of fetching the forecast of one location.
+ *
+ * @param lon Longitude of the location.
+ * @param lat Latitude of the location.
+ * @param weathers The forecast as one {@code Weather} per day, empty if it failed.
+ * @param latencyNanos Time from the start of the fetch until the forecast was read or failed.
+ * @param error Why the fetch failed, {@code null} if it succeeded.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public record LocationForecast(double lon, double lat, List<Weather> weathers, long latencyNanos, Exception error) {
+    /**
+     * Returns if the forecast was read.
+     *
+     * @return {@code true} if the fetch succeeded, {@code false} otherwise.
+     */
+    public boolean succeeded() {
+        return error == null;
+    }
+
+    /**
+     * Returns the latency in milliseconds.
+     *
+     * @return Time from the start of the fetch until it was done in milliseconds.
+     */
+    public double latencyMillis() {
+        return latencyNanos / 1_000_000.0;
+    }
+}
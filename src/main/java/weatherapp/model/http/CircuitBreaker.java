@@ -0,0 +1,140 @@
+package weatherapp.model.http;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.enums.CircuitState;
+import weatherapp.metrics.Counter;
+import weatherapp.metrics.Metrics;
+
+/**
+ * {@code CircuitBreaker} stops the requests to an endpoint that keeps failing.
+ *
+ * <p>
+ * The breaker opens after {@code threshold} failures in a row. While it is open every request
+ * is rejected with a {@code CircuitOpenException} without being sent. When the open time has passed,
+ * one trial request is let through: if it succeeds the breaker closes, otherwise it opens again.
+ * A trial that never reports back is replaced by a new one after another open time.
+ * </p>
+ *
+ * <p>
+ * The state is published as the gauge {@code http.circuit.<name>}, {@code 0} closed, {@code 1} open
+ * and {@code 2} half open, and the rejected requests are counted as {@code http.circuit.rejected}.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class CircuitBreaker {
+    private static final Counter REJECTED = Metrics.counter("http.circuit.rejected");
+
+    /**
+     * The name of the endpoint.
+     */
+    private final String name;
+    /**
+     * Failures in a row that open the breaker.
+     */
+    private final int threshold;
+    /**
+     * Time the breaker stays open before a trial, in nanoseconds.
+     */
+    private final long openNanos;
+    /**
+     * Returns the current time in nanoseconds, {@link System#nanoTime()} outside of tests.
+     */
+    private final LongSupplier clock;
+
+    private CircuitState state;
+    /**
+     * Failures in a row.
+     */
+    private int failures;
+    /**
+     * Time the breaker opened, or the trial was let through when it is half open.
+     */
+    private long since;
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+
+    /**
+     * Constructs a closed {@code CircuitBreaker}.
+     *
+     * @param name The name of the endpoint, eg. its host.
+     * @param threshold Failures in a row that open the breaker.
+     * @param openTime Time the breaker stays open before a trial.
+     */
+    public CircuitBreaker(String name, int threshold, Duration openTime) {
+        this(name, threshold, openTime, System::nanoTime);
+    }
+
+    /**
+     * Constructs a closed {@code CircuitBreaker} that reads the time from the given clock.
+     *
+     * @param name The name of the endpoint, eg. its host.
+     * @param threshold Failures in a row that open the breaker.
+     * @param openTime Time the breaker stays open before a trial.
+     * @param clock Returns the current time in nanoseconds.
+     */
+    CircuitBreaker(String name, int threshold, Duration openTime, LongSupplier clock) {
+        this.name = name;
+        this.threshold = threshold;
+        this.openNanos = openTime.toNanos();
+        this.clock = clock;
+        state = CircuitState.CLOSED;
+
+        Metrics.gauge("http.circuit." + name, () -> getState().ordinal());
+    }
+
+    /**
+     * Lets a request through, or rejects it if the breaker is open.
+     *
+     * @throws CircuitOpenException if the request may not be sent.
+     */
+    public synchronized void acquire() throws CircuitOpenException {
+        if (state == CircuitState.CLOSED) return;
+
+        long now = clock.getAsLong();
+        long waited = now - since;
+        if (waited < openNanos) {
+            REJECTED.increment();
+            throw new CircuitOpenException(name, Duration.ofNanos(openNanos - waited));
+        }
+
+        if (state == CircuitState.OPEN) logger.info("Circuit half open: {}", name);
+        state = CircuitState.HALF_OPEN;
+        since = now;
+    }
+
+    /**
+     * Reports a successful request, the breaker closes.
+     */
+    public synchronized void onSuccess() {
+        if (state != CircuitState.CLOSED) logger.info("Circuit closed: {}", name);
+        state = CircuitState.CLOSED;
+        failures = 0;
+    }
+
+    /**
+     * Reports a failed request, the breaker opens after {@code threshold} failures in a row or a failed trial.
+     */
+    public synchronized void onFailure() {
+        failures++;
+        if (state == CircuitState.HALF_OPEN || failures >= threshold) {
+            if (state != CircuitState.OPEN) logger.warn("Circuit open: {} after {} failures", name, failures);
+            state = CircuitState.OPEN;
+            since = clock.getAsLong();
+        }
+    }
+
+    /**
+     * Returns the state of the breaker.
+     *
+     * @return The current {@code CircuitState}.
+     */
+    public synchronized CircuitState getState() {
+        return state;
+    }
+}
@@ -0,0 +1,37 @@
+package weatherapp.model.http;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * {@code CircuitOpenException} is thrown instead of sending a request to an endpoint
+ * whose {@code CircuitBreaker} is open.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class CircuitOpenException extends IOException {
+    /**
+     * Time until the endpoint is tried again.
+     */
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a {@code CircuitOpenException}.
+     *
+     * @param endpoint The name of the endpoint.
+     * @param retryAfter Time until the endpoint is tried again.
+     */
+    public CircuitOpenException(String endpoint, Duration retryAfter) {
+        super("Circuit open: " + endpoint + ", retry in " + retryAfter.toMillis() + " ms");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the time until the endpoint is tried again.
+     *
+     * @return The time until the breaker lets a trial request through.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
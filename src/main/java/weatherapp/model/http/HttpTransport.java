@@ -0,0 +1,554 @@
+package weatherapp.model.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.enums.Endpoint;
+
+/**
+ * {@code HttpTransport} is a class that performs the HTTP requests of the application
+ * through one shared {@code HttpClient}.
+ *
+ * <p>
+ * Connections are kept alive and reused, HTTP/2 is used when the server supports it
+ * and responses are requested gzip compressed.
+ * </p>
+ *
+ * <p>
+ * The body of every response with an {@code ETag} or {@code Last-Modified} header is kept,
+ * the next request for the same URL sends {@code If-None-Match}/{@code If-Modified-Since}
+ * and a {@code 304 Not Modified} is answered with the kept body.
+ * </p>
+ *
+ * <p>
+ * Every {@code Endpoint}, or host of another URL, has a {@code CircuitBreaker}, one that has failed {@value #FAILURE_THRESHOLD} times in a row
+ * is not requested again until a trial 30 seconds later. Connection errors, {@code 429}
+ * and {@code 5xx} responses count as failures, and so does a body that fails or stalls while it is read.
+ * A {@code 200} response counts as a success when its body has been read to the end or closed.
+ * </p>
+ *
+ * <p>
+ * The timeouts are read from the system properties {@value #CONNECT_TIMEOUT_PROPERTY}
+ * and {@value #READ_TIMEOUT_PROPERTY} in milliseconds. The read timeout limits the wait for the
+ * response headers, and the wait for the next bytes of a body while it is read. A body that stalls
+ * for longer is closed by a watchdog and the blocked read fails with an {@code HttpTimeoutException}.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class HttpTransport {
+    /**
+     * System properties for the timeouts in milliseconds.
+     */
+    public static final String CONNECT_TIMEOUT_PROPERTY = "weatherapp.http.connectTimeout",
+                               READ_TIMEOUT_PROPERTY = "weatherapp.http.readTimeout";
+    /**
+     * Default timeouts.
+     */
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5), READ_TIMEOUT = Duration.ofSeconds(15);
+    /**
+     * Amount of response bodies that are kept for revalidation.
+     */
+    private static final int CACHE_SIZE = 32;
+    /**
+     * Bytes that are read when a body is closed before its end.
+     */
+    private static final int TRAILING_BYTES = 64;
+    /**
+     * Failures in a row that open the breaker of an endpoint, and the time it stays open.
+     */
+    public static final int FAILURE_THRESHOLD = 3;
+    private static final Duration OPEN_TIME = Duration.ofSeconds(30);
+    /**
+     * Closes the bodies that have stalled, shared by every transport.
+     */
+    private static final ScheduledExecutorService WATCHDOG =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("http-watchdog").daemon().factory());
+    /**
+     * The shared transport.
+     */
+    private static volatile HttpTransport instance;
+
+    /**
+     * The shared client.
+     */
+    private final HttpClient client;
+    /**
+     * Time to wait for the response headers, and for the next bytes while a body is read.
+     */
+    private final Duration readTimeout;
+    /**
+     * Kept bodies by URL, the eldest is removed when the cache is full.
+     */
+    private final Map<String, CachedResponse> cache;
+    /**
+     * The breaker of every requested {@code Endpoint} by its name, or of the host of a URL that is not an endpoint.
+     */
+    private final Map<String, CircuitBreaker> breakers;
+    /**
+     * Failures in a row that open a breaker of this transport.
+     */
+    private final int failureThreshold;
+
+    private static final Logger logger = LogManager.getLogger(HttpTransport.class);
+
+    /**
+     * A kept response body with its validators.
+     *
+     * @param etag The {@code ETag} header, or {@code null}.
+     * @param lastModified The {@code Last-Modified} header, or {@code null}.
+     * @param body The uncompressed body.
+     */
+    private record CachedResponse(String etag, String lastModified, byte[] body) {}
+
+    /**
+     * Constructs an {@code HttpTransport} with the given timeouts.
+     *
+     * @param connectTimeout Time to wait for a connection.
+     * @param readTimeout Time to wait for the response headers and for the next bytes of a body.
+     */
+    public HttpTransport(Duration connectTimeout, Duration readTimeout) {
+        this(connectTimeout, readTimeout, FAILURE_THRESHOLD);
+    }
+
+    /**
+     * Constructs an {@code HttpTransport} with the given timeouts and breakers.
+     *
+     * @param connectTimeout Time to wait for a connection.
+     * @param readTimeout Time to wait for the response headers and for the next bytes of a body.
+     * @param failureThreshold Failures in a row that open a breaker, {@code Integer.MAX_VALUE} for breakers that never open.
+     */
+    public HttpTransport(Duration connectTimeout, Duration readTimeout, int failureThreshold) {
+        this.readTimeout = readTimeout;
+        this.failureThreshold = failureThreshold;
+
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(connectTimeout)
+            .build();
+
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+        breakers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the shared transport, it is created the first time it is requested.
+     *
+     * @return The shared {@code HttpTransport}.
+     */
+    public static HttpTransport getDefault() {
+        if (instance == null) {
+            synchronized (HttpTransport.class) {
+                if (instance == null) instance = create(FAILURE_THRESHOLD);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a transport with the timeouts of {@value #CONNECT_TIMEOUT_PROPERTY} and {@value #READ_TIMEOUT_PROPERTY}.
+     *
+     * @param failureThreshold Failures in a row that open a breaker, {@code Integer.MAX_VALUE} for breakers that never open.
+     * @return The new {@code HttpTransport}, it is not shared.
+     */
+    public static HttpTransport create(int failureThreshold) {
+        return new HttpTransport(
+            duration(CONNECT_TIMEOUT_PROPERTY, CONNECT_TIMEOUT),
+            duration(READ_TIMEOUT_PROPERTY, READ_TIMEOUT),
+            failureThreshold
+        );
+    }
+
+    /**
+     * Replaces the shared transport, eg. with one that has other timeouts.
+     *
+     * @param transport The new shared transport.
+     */
+    public static void setDefault(HttpTransport transport) {
+        instance = transport;
+    }
+
+    /**
+     * Reads a duration in milliseconds from a system property.
+     *
+     * @param property The name of the property.
+     * @param fallback The duration if the property is missing or invalid.
+     * @return The duration.
+     */
+    private static Duration duration(String property, Duration fallback) {
+        try {
+            return Duration.ofMillis(Long.parseLong(System.getProperty(property)));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Performs a GET request and returns the uncompressed body.
+     * The body is streamed from the connection, if it has validators it is kept when it has been fully read.
+     *
+     * @param url The URL to request.
+     * @return The body of the response as an {@code InputStream}.
+     * @throws CircuitOpenException if the breaker of the endpoint or host is open, no request is sent.
+     * @throws IOException if the request fails or the status is not 200 or 304.
+     */
+    public InputStream get(String url) throws IOException {
+        URI uri = URI.create(url);
+        Endpoint endpoint = Endpoint.forUrl(url);
+        CircuitBreaker breaker = getBreaker(endpoint != null ? endpoint.getName() : uri.getHost());
+        breaker.acquire();
+
+        CachedResponse cached;
+        synchronized (cache) {
+            cached = cache.get(url);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+            .timeout(readTimeout)
+            .header("Accept", "application/json")
+            .header("Accept-Encoding", "gzip");
+
+        if (cached != null) {
+            if (cached.etag() != null) builder.header("If-None-Match", cached.etag());
+            if (cached.lastModified() != null) builder.header("If-Modified-Since", cached.lastModified());
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = send(builder.GET().build());
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            breaker.onFailure();
+            throw e;
+        }
+
+        int status = response.statusCode();
+        if (status == 429 || status >= 500) breaker.onFailure();
+        else if (status != 200) breaker.onSuccess();
+
+        if (status == 304 && cached != null) {
+            response.body().close();
+            logger.info("Not Modified: {}", url);
+            return new ByteArrayInputStream(cached.body());
+        }
+        if (status != 200) {
+            response.body().close();
+            throw new IOException("HTTP " + status + ": " + url);
+        }
+
+        HttpHeaders headers = response.headers();
+        InputStream body = new BodyInputStream(response.body(), url, breaker);
+        if (headers.firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent()) {
+            try {
+                body = new GZIPInputStream(body);
+            } catch (IOException e) {
+                body.close();
+                throw e;
+            }
+        }
+
+        Optional<String> etag = headers.firstValue("ETag");
+        Optional<String> lastModified = headers.firstValue("Last-Modified");
+        if (etag.isEmpty() && lastModified.isEmpty()) return body;
+
+        return new CachingInputStream(body, url, etag.orElse(null), lastModified.orElse(null));
+    }
+
+    /**
+     * Sends the request and converts an interrupt to an {@code InterruptedIOException}.
+     *
+     * @param request The request to send.
+     * @return The response with the body as a stream.
+     * @throws IOException if the request fails.
+     */
+    private HttpResponse<InputStream> send(HttpRequest request) throws IOException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request interrupted: " + request.uri());
+        }
+    }
+
+    /**
+     * Returns the breaker of an endpoint or host, it is created the first time it is requested.
+     *
+     * @param name The name of the {@code Endpoint}, or the host of a URL that is not an endpoint.
+     * @return The {@code CircuitBreaker}.
+     */
+    public CircuitBreaker getBreaker(String name) {
+        return breakers.computeIfAbsent(name, n -> new CircuitBreaker(n, failureThreshold, OPEN_TIME));
+    }
+
+    /**
+     * Removes every kept body.
+     */
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * {@code BodyInputStream} closes a body that has not delivered any bytes within the read timeout
+     * while it is being read, which unblocks the reader. Time the reader spends between reads is not counted.
+     * The watchdog is rescheduled from the last progress, so a read costs two volatile writes.
+     * It stops when the end of the body is reached or the body is closed.
+     *
+     * <p>
+     * The outcome of the body is reported to the breaker of the request once: a failed or stalled read
+     * is a failure, the end of the body or a close is a success. An interrupted read is not reported.
+     * </p>
+     */
+    private class BodyInputStream extends FilterInputStream {
+        private final String url;
+        private final CircuitBreaker breaker;
+        private final long timeoutNanos;
+        private volatile long progress;
+        private volatile boolean reading, timedOut, done;
+        private boolean reported;
+        private ScheduledFuture<?> check;
+
+        private BodyInputStream(InputStream in, String url, CircuitBreaker breaker) {
+            super(in);
+            this.url = url;
+            this.breaker = breaker;
+            timeoutNanos = readTimeout.toNanos();
+            progress = System.nanoTime();
+            schedule(timeoutNanos);
+        }
+
+        /**
+         * Schedules the next check of the body.
+         *
+         * @param delayNanos Time until the check.
+         */
+        private synchronized void schedule(long delayNanos) {
+            if (!done) check = WATCHDOG.schedule(this::check, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Closes the body if a read has waited for longer than the timeout, or schedules the next check.
+         */
+        private void check() {
+            long idle = System.nanoTime() - progress;
+            if (!reading || idle < timeoutNanos) {
+                schedule(reading ? timeoutNanos - idle : timeoutNanos);
+                return;
+            }
+
+            timedOut = true;
+            logger.warn("Body stalled for {} ms, closing: {}", TimeUnit.NANOSECONDS.toMillis(idle), url);
+            try {
+                in.close();
+            } catch (IOException e) {
+                logger.debug("Could not close stalled body {}: {}", url, e.getMessage());
+            }
+        }
+
+        /**
+         * Marks the start or the end of a read.
+         *
+         * @param active {@code true} at the start of a read.
+         */
+        private void mark(boolean active) {
+            progress = System.nanoTime();
+            reading = active;
+        }
+
+        /**
+         * Reports the outcome of the body to the breaker, only the first outcome is reported.
+         *
+         * @param success {@code true} if the body was read, {@code false} if it failed.
+         */
+        private synchronized void report(boolean success) {
+            if (reported) return;
+            reported = true;
+
+            if (success) breaker.onSuccess();
+            else breaker.onFailure();
+        }
+
+        /**
+         * Reports a failed read and replaces the failure of a read that was ended by the watchdog.
+         *
+         * @param e The failure of the read.
+         * @return The failure to throw.
+         */
+        private IOException failure(IOException e) {
+            boolean interrupted = Thread.currentThread().isInterrupted()
+                || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException));
+
+            if (interrupted && !timedOut) {
+                synchronized (this) {
+                    reported = true;
+                }
+            } else {
+                report(false);
+            }
+
+            if (!timedOut) return e;
+            HttpTimeoutException timeout = new HttpTimeoutException("No bytes received for " + readTimeout.toMillis() + " ms: " + url);
+            timeout.initCause(e);
+            return timeout;
+        }
+
+        @Override
+        public int read() throws IOException {
+            mark(true);
+            try {
+                int b = super.read();
+                if (b == -1) finish();
+                return b;
+            } catch (IOException e) {
+                throw failure(e);
+            } finally {
+                mark(false);
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            mark(true);
+            try {
+                int read = super.read(b, off, len);
+                if (read == -1) finish();
+                return read;
+            } catch (IOException e) {
+                throw failure(e);
+            } finally {
+                mark(false);
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            mark(true);
+            try {
+                return super.skip(n);
+            } catch (IOException e) {
+                throw failure(e);
+            } finally {
+                mark(false);
+            }
+        }
+
+        /**
+         * Stops the watchdog of the body.
+         */
+        private synchronized void stop() {
+            done = true;
+            if (check != null) check.cancel(false);
+        }
+
+        /**
+         * Stops the watchdog and reports a success, the body has been read.
+         */
+        private void finish() {
+            stop();
+            report(true);
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            super.close();
+        }
+    }
+
+    /**
+     * {@code CachingInputStream} copies the bytes that are read and keeps them
+     * as the cached body once the end of the stream has been reached.
+     * A reader that stops at the end of the JSON may leave a few trailing bytes,
+     * those are read on close.
+     */
+    private class CachingInputStream extends FilterInputStream {
+        private final ByteArrayOutputStream copy;
+        private final String url, etag, lastModified;
+        private boolean complete;
+
+        private CachingInputStream(InputStream in, String url, String etag, String lastModified) {
+            super(in);
+            this.url = url;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            copy = new ByteArrayOutputStream(8192);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) complete = true;
+            else copy.write(b);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read == -1) complete = true;
+            else copy.write(b, off, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            int read = read(buffer, 0, buffer.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            byte[] rest = new byte[TRAILING_BYTES];
+            int drained = 0;
+            try {
+                while (!complete && drained < TRAILING_BYTES) {
+                    drained += Math.max(read(rest, 0, TRAILING_BYTES - drained), 0);
+                }
+            } catch (IOException e) {
+                complete = false;
+            }
+
+            super.close();
+            if (!complete) return;
+
+            synchronized (cache) {
+                cache.put(url, new CachedResponse(etag, lastModified, copy.toByteArray()));
+            }
+        }
+    }
+}
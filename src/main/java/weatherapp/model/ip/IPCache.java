@@ -0,0 +1,154 @@
+package weatherapp.model.ip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import java.time.Duration;
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * {@code IPCache} is a class that keeps the last resolved {@code IP} in memory and on disk,
+ * so it can be reused across refreshes and restarts.
+ *
+ * <p>
+ * The {@code IP} is stored together with a fingerprint of the local network interfaces.
+ * It is only returned while the fingerprint is the same and the time to live has not passed.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class IPCache {
+    /**
+     * The file the {@code IP} is stored in.
+     */
+    private final Path file;
+    /**
+     * Time the {@code IP} is used after it was resolved.
+     */
+    private final Duration ttl;
+    /**
+     * The {@code IP} in memory, {@code null} if it has not been read or was invalidated.
+     */
+    private IP ip;
+    /**
+     * Fingerprint of the network interfaces the {@code IP} was resolved on.
+     */
+    private String fingerprint;
+    /**
+     * Time the {@code IP} was resolved in milliseconds since the epoch.
+     */
+    private long savedAt;
+
+    private static final Logger logger = LogManager.getLogger(IPCache.class);
+
+    /**
+     * Constructs an {@code IPCache} stored in the given file.
+     * The stored {@code IP} is read the first time it is requested.
+     *
+     * @param file The file the {@code IP} is stored in.
+     * @param ttl Time the {@code IP} is used after it was resolved.
+     */
+    public IPCache(Path file, Duration ttl) {
+        this.file = file;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Returns the cached {@code IP} if it was resolved on the same network and is still fresh.
+     *
+     * @param currentFingerprint Fingerprint of the current network interfaces.
+     * @return The cached {@code IP}, or {@code null} if there is none that can be used.
+     */
+    public synchronized IP get(String currentFingerprint) {
+        if (ip == null) load();
+        if (ip == null) return null;
+
+        if (!currentFingerprint.equals(fingerprint)) {
+            logger.info("Network changed, location is resolved again");
+            return null;
+        }
+        if (System.currentTimeMillis() - savedAt > ttl.toMillis()) return null;
+
+        return ip;
+    }
+
+    /**
+     * Stores the {@code IP} resolved on the network with the given fingerprint.
+     *
+     * @param ip The resolved {@code IP}.
+     * @param currentFingerprint Fingerprint of the current network interfaces.
+     */
+    public synchronized void put(IP ip, String currentFingerprint) {
+        this.ip = ip;
+        this.fingerprint = currentFingerprint;
+        this.savedAt = System.currentTimeMillis();
+
+        Properties properties = new Properties();
+        properties.setProperty("ip", ip.getIpAdress());
+        properties.setProperty("city", ip.getCity());
+        properties.setProperty("region", ip.getRegion());
+        properties.setProperty("country", ip.getCountry());
+        properties.setProperty("isp", ip.getIsp());
+        properties.setProperty("lat", String.valueOf(ip.getLat()));
+        properties.setProperty("lon", String.valueOf(ip.getLon()));
+        properties.setProperty("fingerprint", currentFingerprint);
+        properties.setProperty("savedAt", String.valueOf(savedAt));
+
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                properties.store(out, "Weather App location");
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write location cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Forgets the cached {@code IP}, the next request resolves it again.
+     */
+    public synchronized void invalidate() {
+        ip = null;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete location cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the stored {@code IP} from the file.
+     */
+    private void load() {
+        Properties properties = new Properties();
+
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+
+            ip = new IP(
+                properties.getProperty("ip"),
+                properties.getProperty("city"),
+                properties.getProperty("region"),
+                properties.getProperty("country"),
+                properties.getProperty("isp"),
+                Double.parseDouble(properties.getProperty("lat")),
+                Double.parseDouble(properties.getProperty("lon"))
+            );
+            fingerprint = properties.getProperty("fingerprint", "");
+            savedAt = Long.parseLong(properties.getProperty("savedAt"));
+        } catch (NoSuchFileException e) {
+            ip = null;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unreadable location cache {}: {}", file, e.getMessage());
+            ip = null;
+        }
+    }
+}
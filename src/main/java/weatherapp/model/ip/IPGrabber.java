@@ -2,8 +2,23 @@ package weatherapp.model.ip;
 
 import java.io.IOException;
 
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import weatherapp.enums.Endpoint;
+import weatherapp.interfaces.Action;
+import weatherapp.metrics.Counter;
+import weatherapp.metrics.Histogram;
+import weatherapp.metrics.Metrics;
 import weatherapp.model.json.JSONReader;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -13,34 +28,126 @@ import org.json.JSONObject;
  * It uses IPify API to fetch the IP and IPInfo API to fetch the information based on the IP.
  * <p>
  * Uses {@code JSONReader} to read JSON from the URL.
+ * <p>
+ * A resolved {@code IP} can be kept in an {@code IPCache}. It is reused as long as the local network
+ * interfaces are the same, the public IP is then checked in the background instead of before the refresh.
  * 
  * @author Axel Lönnby Wesselgren
  */
 public class IPGrabber {
     /**
-     * URL to fetch the IP.
+     * Path to fetch the IP on the {@code IPIFY} endpoint.
      */
-    private final static String IP_URL = "https://api.ipify.org?format=json";
+    private final static String IP_PATH = "?format=json";
     /**
-     * URL to fetch the information based on the public IP.
+     * Path to fetch the information based on the public IP on the {@code IPINFO} endpoint.
      * {ip} is a placeholder for the IP address.
      */
-    private final static String GEO_URL = "https://ipinfo.io/{ip}/json";
+    private final static String GEO_PATH = "/{ip}/json";
+
+    /**
+     * Latency of the IP and location lookups, and amount of lookups served from the cache.
+     */
+    private static final Histogram IP_LOOKUP = Metrics.histogram("ip.lookup"), GEO_LOOKUP = Metrics.histogram("geo.lookup");
+    private static final Counter CACHE_HITS = Metrics.counter("ip.cache.hits");
+
+    private static final Logger logger = LogManager.getLogger(IPGrabber.class);
+
+    /**
+     * Returns the {@code IP} of the user, from the cache if the network has not changed.
+     * <p>
+     * A cached {@code IP} is returned without any request. The public IP is then fetched
+     * in the background, if it differs from the cached one the cache is invalidated and
+     * {@code onChange} is run so the location can be resolved again.
+     * Otherwise the IP and its information are fetched and stored in the cache.
+     * 
+     * @param cache The cache of the resolved {@code IP}.
+     * @param onChange Run when the public IP has changed since it was cached.
+     * @return information of the user as an {@code IP} object.
+     * @throws JSONException if the JSON is not valid or invalid code to read the JSON.
+     * @throws IOException if an I/O error occurs, usually lack of internet connection.
+     */
+    public static IP grabIP(IPCache cache, Action onChange) throws JSONException, IOException {
+        String fingerprint = networkFingerprint();
+        IP cached = cache.get(fingerprint);
+
+        if (cached != null) {
+            logger.info("Using cached location: {}", cached.getIpAdress());
+            CACHE_HITS.increment();
+            verifyIpAdress(cache, cached, onChange);
+            return cached;
+        }
+
+        IP ip = grabFullIP(grabIpAdress());
+        cache.put(ip, fingerprint);
+        return ip;
+    }
+
+    /**
+     * Fetches the public IP on a virtual thread and compares it to the cached {@code IP}.
+     * 
+     * @param cache The cache of the resolved {@code IP}.
+     * @param cached The cached {@code IP}.
+     * @param onChange Run when the public IP has changed.
+     */
+    private static void verifyIpAdress(IPCache cache, IP cached, Action onChange) {
+        Thread.ofVirtual().name("ip-verify").start(() -> {
+            try {
+                String ipAdress = grabIpAdress();
+                if (ipAdress.equals(cached.getIpAdress())) return;
 
+                logger.info("Public IP changed from {} to {}", cached.getIpAdress(), ipAdress);
+                cache.invalidate();
+                onChange.action();
+            } catch (IOException | JSONException e) {
+                logger.warn("Could not verify public IP: {}", e.getMessage());
+            }
+        });
+    }
 
     /**
-     * Fetches public IP of the user from the URL {@value #IP_URL}.
+     * Returns a fingerprint of the local network interfaces that are up,
+     * made from their names and addresses. Loopback and virtual interfaces are ignored.
+     * 
+     * @return The fingerprint, or an empty {@code String} if the interfaces can't be read.
+     */
+    public static String networkFingerprint() {
+        List<String> entries = new ArrayList<>();
+
+        try {
+            for (NetworkInterface nif : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+                if (!nif.isUp() || nif.isLoopback() || nif.isVirtual()) continue;
+
+                for (InetAddress address : Collections.list(nif.getInetAddresses())) {
+                    entries.add(nif.getName() + "/" + address.getHostAddress());
+                }
+            }
+        } catch (SocketException e) {
+            logger.warn("Could not read network interfaces: {}", e.getMessage());
+            return "";
+        }
+
+        Collections.sort(entries);
+        return Integer.toHexString(String.join(",", entries).hashCode());
+    }
+
+
+    /**
+     * Fetches public IP of the user from the {@code IPIFY} endpoint.
      * 
      * @return public IP of the user as a {@code String}.
      * @throws IOException if an I/O error occurs, usually lack of internet connection.
      */
     public static String grabIpAdress() throws IOException {
-        return JSONReader.readJsonFromURL(IP_URL).getString("ip");
+        long start = System.nanoTime();
+        String ipAdress = JSONReader.readJsonFromURL(Endpoint.IPIFY.getBaseUrl() + IP_PATH).getString("ip");
+        IP_LOOKUP.recordSince(start);
+        return ipAdress;
     }
 
     /**
      * Fetches full information of an user based on the given IP
-     * from the URL {@value #GEO_URL}.
+     * from the {@code IPINFO} endpoint.
      * 
      * @param ipAdress IP address of the user as a {@code String}.
      * @return information of the user as an {@code IP} object.
@@ -48,7 +155,21 @@ public class IPGrabber {
      * @throws IOException if an I/O error occurs, usually lack of internet connection.
      */
     public static IP grabFullIP(String ipAdress) throws JSONException, IOException {
-        JSONObject fullIpJson = JSONReader.readJsonFromURL(GEO_URL.replace("{ip}", ipAdress));
+        long start = System.nanoTime();
+        JSONObject fullIpJson = JSONReader.readJsonFromURL(Endpoint.IPINFO.getBaseUrl() + GEO_PATH.replace("{ip}", ipAdress));
+        GEO_LOOKUP.recordSince(start);
+        return readIP(ipAdress, fullIpJson);
+    }
+
+    /**
+     * Reads the information of an user from an IPInfo response.
+     * 
+     * @param ipAdress IP address of the user as a {@code String}.
+     * @param fullIpJson The IPInfo response.
+     * @return information of the user as an {@code IP} object.
+     * @throws JSONException if the JSON is missing any of the fields.
+     */
+    public static IP readIP(String ipAdress, JSONObject fullIpJson) throws JSONException {
         String[] geo = fullIpJson.getString("loc").split(",");
 
         return new IP(
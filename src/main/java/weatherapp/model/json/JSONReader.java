@@ -5,18 +5,23 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
-import java.net.URI;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import weatherapp.interfaces.JSONStreamHandler;
+import weatherapp.model.http.HttpTransport;
 
 /**
- * {@code JSONReader} is a class that contains a method to fetch and read JSON from a URL.
- * The JSON is read and then returned as a {@code JSONObject}.
- * 
+ * {@code JSONReader} is a class that contains methods to fetch and read JSON from a URL.
+ * The JSON is either read and returned as a {@code JSONObject}, or streamed
+ * to a {@code JSONStreamHandler} while it is being downloaded.
+ * The requests are made through the shared {@code HttpTransport}.
+ *
  * @author Axel Lönnby Wesselgren
  */
 public class JSONReader {
@@ -24,28 +29,110 @@ public class JSONReader {
      * Logger for the {@code JSONReader} class.
      */
     private static final Logger logger = LogManager.getLogger(JSONReader.class);
-    
+    /**
+     * Size of the buffer used when reading the body.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
     /**
      * Fetches JSON from the given URL param and returns it as a {@code JSONObject}.
-     * 
+     *
      * @param url URL to fetch the JSON from.
      * @return JSON as a {@code JSONObject}.
      * @throws IOException if an I/O error occurs, usually lack of internet connection.
      * @throws JSONException if the JSON is not valid or invalid code to read the JSON.
      */
     public static JSONObject readJsonFromURL(String url) throws IOException, JSONException {
-        InputStream inputStream = URI.create(url).toURL().openStream();
-        
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, Charset.forName("UTF-8")))) {
-            String jsonText = "";
-            int c;
-
-            while ((c = reader.read()) != -1) {
-                jsonText += (char) c;
-            }
-
-            logger.info("Connection Established: " + url);
-            return new JSONObject(jsonText);
+        try (InputStream inputStream = openStream(url)) {
+            return new JSONObject(readBody(inputStream));
+        }
+    }
+
+    /**
+     * Requests the given URL and returns the body as an {@code InputStream}.
+     * An unchanged response is revalidated and served from the {@code HttpTransport} cache.
+     *
+     * @param url URL to connect to.
+     * @return The body of the response as an {@code InputStream}.
+     * @throws IOException if an I/O error occurs, usually lack of internet connection.
+     */
+    public static InputStream openStream(String url) throws IOException {
+        InputStream inputStream = HttpTransport.getDefault().get(url);
+        logger.info("Connection Established: " + url);
+        return inputStream;
+    }
+
+    /**
+     * Reads the whole stream as UTF-8 text.
+     *
+     * @param inputStream The stream to read.
+     * @return The content of the stream as a {@code String}.
+     * @throws IOException if an I/O error occurs while reading.
+     */
+    public static String readBody(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        StringBuilder jsonText = new StringBuilder(BUFFER_SIZE);
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+
+        while ((read = reader.read(buffer)) != -1) {
+            jsonText.append(buffer, 0, read);
+        }
+
+        return jsonText.toString();
+    }
+
+    /**
+     * Reads a JSON object from the stream without building the whole document.
+     * Every element of the array with the key {@code arrayKey} is parsed on its own
+     * and handed to the handler as soon as its bytes have arrived.
+     * All other top level fields are handed to the handler as they are read.
+     *
+     * @param inputStream The stream to read the JSON from.
+     * @param arrayKey The key of the array to stream.
+     * @param handler The handler that receives the fields and elements.
+     * @throws JSONException if the JSON is not valid.
+     */
+    public static void readStream(InputStream inputStream, String arrayKey, JSONStreamHandler handler) throws JSONException {
+        JSONTokener tokener = new JSONTokener(inputStream);
+
+        if (tokener.nextClean() != '{') {
+            throw tokener.syntaxError("A JSONObject text must begin with '{'");
+        }
+
+        char c = tokener.nextClean();
+        while (c != '}') {
+            if (c != '"') throw tokener.syntaxError("Expected a key");
+            String key = tokener.nextString('"');
+            if (tokener.nextClean() != ':') throw tokener.syntaxError("Expected a ':' after a key");
+
+            if (key.equals(arrayKey)) readArray(tokener, handler);
+            else handler.field(key, tokener.nextValue());
+
+            c = tokener.nextClean();
+            if (c == ',') c = tokener.nextClean();
+            else if (c != '}') throw tokener.syntaxError("Expected a ',' or '}'");
+        }
+    }
+
+    /**
+     * Reads an array one element at a time and hands every element to the handler.
+     *
+     * @param tokener The tokener positioned before the array.
+     * @param handler The handler that receives the elements.
+     * @throws JSONException if the JSON is not valid.
+     */
+    private static void readArray(JSONTokener tokener, JSONStreamHandler handler) throws JSONException {
+        if (tokener.nextClean() != '[') throw tokener.syntaxError("A JSONArray text must start with '['");
+        if (tokener.nextClean() == ']') return;
+        tokener.back();
+
+        while (true) {
+            handler.element(new JSONObject(tokener));
+
+            char c = tokener.nextClean();
+            if (c == ']') return;
+            if (c != ',') throw tokener.syntaxError("Expected a ',' or ']'");
         }
     }
 }
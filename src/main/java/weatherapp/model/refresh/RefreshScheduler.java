@@ -0,0 +1,177 @@
+package weatherapp.model.refresh;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * {@code RefreshScheduler} runs a refresh task on virtual threads when it is requested,
+ * either directly or periodically.
+ *
+ * <p>
+ * No thread is busy while there is nothing to do, a request starts a virtual thread
+ * that runs the task and then ends. Only one refresh runs at a time and at most one
+ * more is queued behind it, further requests while one is queued are merged into it.
+ * </p>
+ *
+ * <p>
+ * The amount of queued, running and completed refreshes can be read at any time.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class RefreshScheduler {
+    /**
+     * The task that performs one refresh.
+     */
+    private final Runnable task;
+    /**
+     * Executor that runs every refresh on its own virtual thread.
+     */
+    private final ExecutorService executor;
+    /**
+     * Timer for the periodic refreshes.
+     */
+    private final ScheduledExecutorService timer;
+    /**
+     * Lock that makes sure only one refresh runs at a time.
+     */
+    private final ReentrantLock lock;
+    /**
+     * Amount of refreshes that are waiting to run, or currently running.
+     */
+    private final AtomicInteger queued, running;
+    /**
+     * Amount of refreshes that are completed, or merged into a queued refresh.
+     */
+    private final AtomicLong completed, merged;
+    /**
+     * The current periodic refresh, {@code null} if there is none.
+     */
+    private ScheduledFuture<?> periodic;
+
+    private static final Logger logger = LogManager.getLogger(RefreshScheduler.class);
+
+    /**
+     * Constructs a {@code RefreshScheduler} for the given task.
+     *
+     * @param task The task that performs one refresh.
+     */
+    public RefreshScheduler(Runnable task) {
+        this.task = task;
+
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("refresh-", 0).factory());
+        timer = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("refresh-timer").factory());
+        lock = new ReentrantLock();
+
+        queued = new AtomicInteger();
+        running = new AtomicInteger();
+        completed = new AtomicLong();
+        merged = new AtomicLong();
+    }
+
+    /**
+     * Requests a refresh.
+     * If a refresh is already queued the request is merged into it.
+     *
+     * @return {@code true} if a new refresh was queued, {@code false} if it was merged.
+     */
+    public boolean request() {
+        if (!queued.compareAndSet(0, 1)) {
+            merged.incrementAndGet();
+            return false;
+        }
+
+        executor.execute(this::runTask);
+        return true;
+    }
+
+    /**
+     * Runs the task once the previous refresh is done.
+     */
+    private void runTask() {
+        lock.lock();
+        try {
+            queued.decrementAndGet();
+            running.incrementAndGet();
+            task.run();
+        } catch (RuntimeException e) {
+            logger.error("Refresh failed", e);
+        } finally {
+            running.decrementAndGet();
+            completed.incrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Requests a refresh every {@code interval}, starting one interval from now.
+     * Replaces any earlier periodic refresh.
+     *
+     * @param interval The time between the refreshes.
+     */
+    public synchronized void schedule(Duration interval) {
+        cancelSchedule();
+        long millis = interval.toMillis();
+        periodic = timer.scheduleAtFixedRate(this::request, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic refresh, if there is one.
+     */
+    public synchronized void cancelSchedule() {
+        if (periodic == null) return;
+        periodic.cancel(false);
+        periodic = null;
+    }
+
+    /**
+     * Stops the periodic refresh and interrupts any running refresh.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the amount of refreshes that are waiting to run.
+     *
+     * @return The amount of queued refreshes.
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+    /**
+     * Returns the amount of refreshes that are currently running.
+     *
+     * @return The amount of running refreshes.
+     */
+    public int getRunning() {
+        return running.get();
+    }
+    /**
+     * Returns the amount of refreshes that have finished.
+     *
+     * @return The amount of completed refreshes.
+     */
+    public long getCompleted() {
+        return completed.get();
+    }
+    /**
+     * Returns the amount of requests that were merged into an already queued refresh.
+     *
+     * @return The amount of merged requests.
+     */
+    public long getMerged() {
+        return merged.get();
+    }
+}
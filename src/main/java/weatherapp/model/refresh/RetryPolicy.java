@@ -0,0 +1,121 @@
+package weatherapp.model.refresh;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+import weatherapp.model.http.CircuitOpenException;
+
+/**
+ * {@code RetryPolicy} decides how long to wait before a failed attempt is retried.
+ *
+ * <p>
+ * The delay grows exponentially from the base delay and is capped at the max delay.
+ * Half of it is random, so instances that failed at the same time do not retry in lockstep.
+ * A failure caused by an open {@code CircuitBreaker} is not retried before the breaker lets a trial through.
+ * </p>
+ *
+ * <p>
+ * The delays are read from the system properties {@value #BASE_PROPERTY} and {@value #MAX_PROPERTY} in milliseconds.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class RetryPolicy {
+    /**
+     * System properties for the delays in milliseconds.
+     */
+    public static final String BASE_PROPERTY = "weatherapp.retry.base",
+                               MAX_PROPERTY = "weatherapp.retry.max";
+    /**
+     * Default delays.
+     */
+    private static final Duration BASE = Duration.ofSeconds(1), MAX = Duration.ofMinutes(5);
+
+    /**
+     * The delay of the first retry and the longest delay, in milliseconds.
+     */
+    private final long baseMillis, maxMillis;
+    /**
+     * Returns the random source of the jitter, the {@code ThreadLocalRandom} of the calling thread outside of tests.
+     */
+    private final Supplier<RandomGenerator> random;
+
+    /**
+     * Constructs a {@code RetryPolicy}.
+     *
+     * @param base The delay of the first retry, before the jitter.
+     * @param max The longest delay, before the jitter.
+     */
+    public RetryPolicy(Duration base, Duration max) {
+        this(base, max, ThreadLocalRandom::current);
+    }
+
+    /**
+     * Constructs a {@code RetryPolicy} that draws the jitter from the given random source.
+     *
+     * @param base The delay of the first retry, before the jitter.
+     * @param max The longest delay, before the jitter.
+     * @param random Returns the random source of the jitter.
+     */
+    RetryPolicy(Duration base, Duration max, Supplier<RandomGenerator> random) {
+        baseMillis = Math.max(1, base.toMillis());
+        maxMillis = Math.max(baseMillis, max.toMillis());
+        this.random = random;
+    }
+
+    /**
+     * Creates a {@code RetryPolicy} with the delays of {@value #BASE_PROPERTY} and {@value #MAX_PROPERTY}.
+     *
+     * @return The {@code RetryPolicy}.
+     */
+    public static RetryPolicy createDefault() {
+        return new RetryPolicy(duration(BASE_PROPERTY, BASE), duration(MAX_PROPERTY, MAX));
+    }
+
+    /**
+     * Reads a duration in milliseconds from a system property.
+     *
+     * @param property The name of the property.
+     * @param fallback The duration if the property is missing or invalid.
+     * @return The duration.
+     */
+    private static Duration duration(String property, Duration fallback) {
+        try {
+            return Duration.ofMillis(Long.parseLong(System.getProperty(property)));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Returns the delay before a retry, between half and all of {@code base * 2^attempt} capped at the max delay.
+     *
+     * @param attempt The amount of failed attempts before this one, {@code 0} for the first retry.
+     * @return The delay.
+     */
+    public Duration delay(int attempt) {
+        int shift = Math.min(Math.max(attempt, 0), Long.numberOfLeadingZeros(baseMillis) - 1);
+        long ceiling = Math.min(maxMillis, baseMillis << shift);
+        long half = ceiling / 2;
+        return Duration.ofMillis(half + random.get().nextLong(ceiling - half + 1));
+    }
+
+    /**
+     * Returns the delay before a retry of an attempt that failed with the given cause.
+     * An open breaker is waited for, plus the jitter of {@link #delay(int)}.
+     *
+     * @param attempt The amount of failed attempts before this one.
+     * @param cause The failure.
+     * @return The delay.
+     */
+    public Duration delay(int attempt, IOException cause) {
+        Duration delay = delay(attempt);
+        if (cause instanceof CircuitOpenException open && open.getRetryAfter().compareTo(delay) > 0) {
+            return open.getRetryAfter().plus(delay.dividedBy(2));
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,204 @@
+package weatherapp.model.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.model.Settings;
+import weatherapp.model.cache.ForecastCache;
+import weatherapp.model.weather.ForecastStore;
+import weatherapp.model.weather.GridIndex;
+import weatherapp.model.weather.GridPoint;
+import weatherapp.model.weather.SMHI;
+
+/**
+ * {@code ForecastFetcher} is a class that reads forecasts through {@code SMHI} and coalesces identical fetches.
+ *
+ * <p>
+ * Fetches are keyed by the grid cell the {@code GridIndex} snaps them to. The first caller of a cell
+ * issues the fetch, every caller of the same cell that arrives while it is in flight waits for it and gets the same
+ * {@code ForecastStore}, or the same error. Once the fetch is done the next caller issues a new one,
+ * so nothing is kept in memory here.
+ * </p>
+ *
+ * <p>
+ * An interrupt only fails the caller that was interrupted. A fetch whose issuer is interrupted is withdrawn
+ * without an error, and one of its waiting callers issues the fetch again.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class ForecastFetcher {
+    /**
+     * Disk cache of the forecasts, {@code null} if no cache is used.
+     */
+    private final ForecastCache cache;
+    /**
+     * Index that snaps the coordinates to the grid.
+     */
+    private final GridIndex grid;
+    /**
+     * The fetches in flight by grid point.
+     */
+    private final Map<GridPoint, CompletableFuture<ForecastStore>> inFlight;
+    /**
+     * Amount of fetches that were issued and amount of callers that waited for a fetch in flight.
+     */
+    private final LongAdder issued, coalesced;
+
+    /**
+     * Settings of the {@code SMHI} that reads the forecasts, the days it splits are not used.
+     */
+    private static final Settings DEFAULT_SETTINGS = new Settings(true, false, true);
+
+    private static final Logger logger = LogManager.getLogger(ForecastFetcher.class);
+
+    /**
+     * Constructs a {@code ForecastFetcher}.
+     *
+     * @param cache Disk cache of the forecasts, {@code null} to always download.
+     * @param grid Index that snaps the coordinates to the grid.
+     */
+    public ForecastFetcher(ForecastCache cache, GridIndex grid) {
+        this.cache = cache;
+        this.grid = grid;
+
+        inFlight = new ConcurrentHashMap<>();
+        issued = new LongAdder();
+        coalesced = new LongAdder();
+    }
+
+    /**
+     * Returns the forecast of the grid point closest to the given coordinates,
+     * joining the fetch of the point if one is in flight.
+     *
+     * @param lon longitude
+     * @param lat latitude
+     * @return The forecast as a {@code ForecastStore}.
+     * @throws IOException if the forecast could not be fetched or read.
+     */
+    public ForecastStore fetch(double lon, double lat) throws IOException {
+        GridPoint point = grid.snap(lon, lat);
+
+        while (true) {
+            CompletableFuture<ForecastStore> flight = new CompletableFuture<>();
+            CompletableFuture<ForecastStore> existing = inFlight.putIfAbsent(point, flight);
+            if (existing == null) return issue(point, flight);
+
+            coalesced.increment();
+            logger.debug("Joined fetch in flight: {}", point);
+            ForecastStore store = await(existing);
+            if (store != null) return store;
+
+            logger.debug("Issuer of fetch was interrupted, retrying: {}", point);
+        }
+    }
+
+    /**
+     * Fetches the forecast of a grid point and completes the fetch in flight with it.
+     * If the thread is interrupted the fetch is withdrawn instead, so the waiting callers retry.
+     * Every other failure, errors included, completes the fetch so the waiting callers never wait forever.
+     *
+     * @param point The grid point.
+     * @param flight The fetch in flight of the point, registered by this caller.
+     * @return The forecast as a {@code ForecastStore}.
+     * @throws IOException if the forecast could not be fetched or read.
+     */
+    private ForecastStore issue(GridPoint point, CompletableFuture<ForecastStore> flight) throws IOException {
+        issued.increment();
+        try {
+            SMHI smhi = new SMHI(DEFAULT_SETTINGS);
+            smhi.setCache(cache);
+            smhi.setGrid(grid);
+            ForecastStore store = smhi.getForecast(point.lon(), point.lat());
+            flight.complete(store);
+            return store;
+        } catch (IOException | RuntimeException e) {
+            if (isInterrupt(e)) {
+                inFlight.remove(point, flight);
+                flight.cancel(false);
+            } else {
+                flight.completeExceptionally(e);
+            }
+            throw e;
+        } catch (Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(point, flight);
+        }
+    }
+
+    /**
+     * Returns whether a failure was caused by an interrupt of the current thread.
+     * A socket timeout is an {@code InterruptedIOException} too, but not an interrupt.
+     *
+     * @param e The failure.
+     * @return {@code true} if the thread was interrupted.
+     */
+    private static boolean isInterrupt(Exception e) {
+        return Thread.currentThread().isInterrupted()
+            || (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException));
+    }
+
+    /**
+     * Snaps the coordinates to the grid cell their forecast is fetched and kept for.
+     *
+     * @param lon longitude
+     * @param lat latitude
+     * @return The grid cell of the coordinates.
+     */
+    public GridPoint snap(double lon, double lat) {
+        return grid.snap(lon, lat);
+    }
+
+    /**
+     * Waits for a fetch issued by another caller.
+     *
+     * @param flight The fetch in flight.
+     * @return The forecast of the fetch, {@code null} if it was withdrawn since its issuer was interrupted.
+     * @throws IOException if the fetch failed, or the thread was interrupted while waiting.
+     */
+    private static ForecastStore await(CompletableFuture<ForecastStore> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting for the forecast");
+            interrupted.initCause(e);
+            throw interrupted;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the amount of fetches that were issued.
+     *
+     * @return The amount of issued fetches.
+     */
+    public long getIssued() {
+        return issued.sum();
+    }
+    /**
+     * Returns the amount of callers that waited for a fetch in flight instead of issuing their own.
+     *
+     * @return The amount of coalesced fetches.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+}
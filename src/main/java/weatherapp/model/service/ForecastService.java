@@ -0,0 +1,186 @@
+package weatherapp.model.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.model.Settings;
+import weatherapp.model.weather.ForecastStore;
+import weatherapp.model.weather.GridPoint;
+import weatherapp.model.weather.SMHI;
+import weatherapp.model.weather.Weather;
+
+/**
+ * {@code ForecastService} is a class that hands out forecasts to many concurrent callers.
+ *
+ * <p>
+ * The read forecasts are kept in memory per grid point, a forecast in memory is used
+ * without touching the disk or the network. A miss is read through a {@code ForecastFetcher},
+ * which checks the disk cache before it downloads from {@code SMHI} and lets concurrent
+ * misses of the same grid point share one fetch.
+ * </p>
+ *
+ * <p>
+ * A {@code ForecastStore} is not changed after it has been read, so the same store is shared
+ * by every caller and each caller gets its own {@code Weather} views with its own settings.
+ * </p>
+ *
+ * <p>
+ * Expired forecasts are only replaced when their grid point is requested again,
+ * the owner of the service calls {@link #purgeExpired()} to remove the ones that are not.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class ForecastService {
+    /**
+     * Reads the forecasts that are not in memory.
+     */
+    private final ForecastFetcher fetcher;
+    /**
+     * Time a forecast is kept in memory after it was read.
+     */
+    private final Duration ttl;
+    /**
+     * The forecasts in memory by grid point.
+     */
+    private final Map<GridPoint, Snapshot> snapshots;
+    /**
+     * Amount of forecasts served from memory and amount of misses.
+     */
+    private final LongAdder hits, misses;
+
+    private static final Logger logger = LogManager.getLogger(ForecastService.class);
+
+    /**
+     * A forecast in memory.
+     *
+     * @param store The forecast.
+     * @param loadedAt Time the forecast was read in milliseconds since the epoch.
+     */
+    private record Snapshot(ForecastStore store, long loadedAt) {}
+
+    /**
+     * Constructs a {@code ForecastService}.
+     *
+     * @param fetcher Reads the forecasts that are not in memory.
+     * @param ttl Time a forecast is kept in memory after it was read.
+     */
+    public ForecastService(ForecastFetcher fetcher, Duration ttl) {
+        this.fetcher = fetcher;
+        this.ttl = ttl;
+
+        snapshots = new ConcurrentHashMap<>();
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    /**
+     * Returns the forecast of the grid point closest to the given coordinates.
+     *
+     * @param lon longitude
+     * @param lat latitude
+     * @return The forecast as a {@code ForecastStore}.
+     * @throws IOException if the forecast is not in memory and could not be fetched or read.
+     */
+    public ForecastStore getForecast(double lon, double lat) throws IOException {
+        GridPoint point = fetcher.snap(lon, lat);
+        Snapshot snapshot = snapshots.get(point);
+
+        if (snapshot != null && System.currentTimeMillis() - snapshot.loadedAt() <= ttl.toMillis()) {
+            hits.increment();
+            return snapshot.store();
+        }
+
+        misses.increment();
+        ForecastStore store = fetcher.fetch(lon, lat);
+        snapshots.put(point, new Snapshot(store, System.currentTimeMillis()));
+        return store;
+    }
+
+    /**
+     * Returns the 10 day forecast of the grid point closest to the given coordinates.
+     *
+     * @param lon longitude
+     * @param lat latitude
+     * @param settings The settings of the returned days.
+     * @return The forecast as one {@code Weather} per day.
+     * @throws IOException if the forecast is not in memory and could not be fetched or read.
+     */
+    public List<Weather> getWeather10D(double lon, double lat, Settings settings) throws IOException {
+        return new SMHI(settings).getWeather10D(getForecast(lon, lat));
+    }
+
+    /**
+     * Removes every forecast in memory that is older than the time to live.
+     *
+     * @return The amount of removed forecasts.
+     */
+    public int purgeExpired() {
+        long oldest = System.currentTimeMillis() - ttl.toMillis();
+        int before = snapshots.size();
+        snapshots.values().removeIf(s -> s.loadedAt() < oldest);
+
+        int removed = before - snapshots.size();
+        if (removed > 0) logger.info("Removed {} expired forecasts from memory", removed);
+        return removed;
+    }
+
+    /**
+     * Returns whether the forecast is the one in memory for the grid point.
+     *
+     * @param point The grid point.
+     * @param store The forecast.
+     * @return {@code true} if the forecast has not been replaced or removed.
+     */
+    public boolean isCurrent(GridPoint point, ForecastStore store) {
+        Snapshot snapshot = snapshots.get(point);
+        return snapshot != null && snapshot.store() == store;
+    }
+    /**
+     * Returns the time a forecast is kept in memory after it was read.
+     *
+     * @return The time to live.
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+    /**
+     * Returns the amount of forecasts in memory.
+     *
+     * @return The amount of grid points in memory.
+     */
+    public int size() {
+        return snapshots.size();
+    }
+    /**
+     * Returns the fetcher that reads the forecasts that are not in memory.
+     *
+     * @return The {@code ForecastFetcher} of the service.
+     */
+    public ForecastFetcher getFetcher() {
+        return fetcher;
+    }
+    /**
+     * Returns the amount of forecasts that were served from memory.
+     *
+     * @return The amount of hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+    /**
+     * Returns the amount of forecasts that were read from disk or downloaded.
+     *
+     * @return The amount of misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,248 @@
+package weatherapp.model.weather;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * {@code ForecastStore} is a class that holds every hourly point of a forecast in primitive arrays.
+ * <p>
+ * Each column holds one value for every point, the valid time as UTC epoch seconds, the
+ * temperature, the wind speed, the gust and the weather symbol. {@code Weather} and {@code Timestamp}
+ * are views over index ranges of the store, so a point costs a few bytes instead of several objects.
+ * <p>
+ * The store also holds when SMHI approved the forecast, the time of the model run it is based on
+ * and the grid cell SMHI answered with.
+ * <p>
+ * Points are only appended while the forecast is read, after that the store is not changed.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class ForecastStore {
+    /**
+     * Seconds in a day.
+     */
+    private static final int DAY = 86400, HOUR = 3600;
+    /**
+     * Initial capacity, a 10 day forecast has about 70 points.
+     */
+    private static final int CAPACITY = 80;
+
+    /**
+     * Valid time of every point as UTC epoch seconds.
+     */
+    private long[] validTimes;
+    /**
+     * Temperature in Celsius, wind speed and gust in m/s of every point.
+     */
+    private double[] temps, windSpeeds, gusts;
+    /**
+     * Weather symbol of every point.
+     */
+    private byte[] symbols;
+    /**
+     * Amount of points in the store.
+     */
+    private int size;
+    /**
+     * Approved time and reference time of the forecast as UTC epoch seconds, 0 if unknown.
+     */
+    private long approvedTime, referenceTime;
+    /**
+     * The grid cell of the forecast, {@code null} if unknown.
+     */
+    private GridPoint gridPoint;
+
+    /**
+     * Constructs an empty {@code ForecastStore}.
+     */
+    public ForecastStore() {
+        validTimes = new long[CAPACITY];
+        temps = new double[CAPACITY];
+        windSpeeds = new double[CAPACITY];
+        gusts = new double[CAPACITY];
+        symbols = new byte[CAPACITY];
+    }
+
+    /**
+     * Appends a point to the store.
+     *
+     * @param validTime Valid time as UTC epoch seconds.
+     * @param temp Temperature in Celsius.
+     * @param windSpeed Wind speed in m/s.
+     * @param gust Gust in m/s.
+     * @param symbol Weather symbol.
+     * @return The index of the point.
+     */
+    public int add(long validTime, double temp, double windSpeed, double gust, int symbol) {
+        if (size == validTimes.length) resize(size * 2);
+
+        validTimes[size] = validTime;
+        temps[size] = temp;
+        windSpeeds[size] = windSpeed;
+        gusts[size] = gust;
+        symbols[size] = (byte) symbol;
+        return size++;
+    }
+
+    /**
+     * Shrinks the arrays to the amount of points.
+     */
+    public void trim() {
+        if (size < validTimes.length) resize(size);
+    }
+
+    /**
+     * Copies every column to arrays of the given length.
+     *
+     * @param length The new length of the columns.
+     */
+    private void resize(int length) {
+        validTimes = Arrays.copyOf(validTimes, length);
+        temps = Arrays.copyOf(temps, length);
+        windSpeeds = Arrays.copyOf(windSpeeds, length);
+        gusts = Arrays.copyOf(gusts, length);
+        symbols = Arrays.copyOf(symbols, length);
+    }
+
+    /**
+     * Sets the time SMHI approved the forecast.
+     *
+     * @param approvedTime Approved time as UTC epoch seconds.
+     */
+    public void setApprovedTime(long approvedTime) {
+        this.approvedTime = approvedTime;
+    }
+    /**
+     * Sets the time of the model run the forecast is based on.
+     *
+     * @param referenceTime Reference time as UTC epoch seconds.
+     */
+    public void setReferenceTime(long referenceTime) {
+        this.referenceTime = referenceTime;
+    }
+    /**
+     * Returns the time SMHI approved the forecast.
+     *
+     * @return Approved time as UTC epoch seconds, 0 if unknown.
+     */
+    public long getApprovedTime() {
+        return approvedTime;
+    }
+    /**
+     * Returns the time of the model run the forecast is based on.
+     *
+     * @return Reference time as UTC epoch seconds, 0 if unknown.
+     */
+    public long getReferenceTime() {
+        return referenceTime;
+    }
+    /**
+     * Sets the grid cell of the forecast.
+     *
+     * @param gridPoint The grid cell SMHI answered with.
+     */
+    public void setGridPoint(GridPoint gridPoint) {
+        this.gridPoint = gridPoint;
+    }
+    /**
+     * Returns the grid cell of the forecast.
+     *
+     * @return The grid cell SMHI answered with, {@code null} if unknown.
+     */
+    public GridPoint getGridPoint() {
+        return gridPoint;
+    }
+
+    /**
+     * Returns the amount of points in the store.
+     *
+     * @return The amount of points.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the valid time of the point.
+     *
+     * @param i Index of the point.
+     * @return Valid time as UTC epoch seconds.
+     */
+    public long getValidTime(int i) {
+        return validTimes[i];
+    }
+    /**
+     * Returns the UTC day of the point.
+     *
+     * @param i Index of the point.
+     * @return The day as days since the epoch.
+     */
+    public long getEpochDay(int i) {
+        return Math.floorDiv(validTimes[i], DAY);
+    }
+    /**
+     * Returns the UTC date of the point.
+     *
+     * @param i Index of the point.
+     * @return The date of the point.
+     */
+    public LocalDate getDate(int i) {
+        return LocalDate.ofEpochDay(getEpochDay(i));
+    }
+    /**
+     * Returns the UTC hour of the point.
+     *
+     * @param i Index of the point.
+     * @return The hour of the point, 0 to 23.
+     */
+    public int getHour(int i) {
+        return Math.floorMod(validTimes[i], DAY) / HOUR;
+    }
+    /**
+     * Returns the UTC time of the point.
+     *
+     * @param i Index of the point.
+     * @return The time of the point.
+     */
+    public LocalTime getTime(int i) {
+        return LocalTime.ofSecondOfDay(Math.floorMod(validTimes[i], DAY));
+    }
+
+    /**
+     * Returns the temperature of the point.
+     *
+     * @param i Index of the point.
+     * @return Temperature in Celsius.
+     */
+    public double getTemp(int i) {
+        return temps[i];
+    }
+    /**
+     * Returns the wind speed of the point.
+     *
+     * @param i Index of the point.
+     * @return Wind speed in m/s.
+     */
+    public double getWindSpeed(int i) {
+        return windSpeeds[i];
+    }
+    /**
+     * Returns the gust of the point.
+     *
+     * @param i Index of the point.
+     * @return Gust in m/s.
+     */
+    public double getGust(int i) {
+        return gusts[i];
+    }
+    /**
+     * Returns the weather symbol of the point.
+     *
+     * @param i Index of the point.
+     * @return The weather symbol.
+     */
+    public int getSymbol(int i) {
+        return symbols[i];
+    }
+}
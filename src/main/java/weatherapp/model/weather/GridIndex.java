@@ -0,0 +1,323 @@
+package weatherapp.model.weather;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.model.cache.AppData;
+
+/**
+ * {@code GridIndex} is a class that snaps coordinates to the grid of the SMHI forecasts.
+ *
+ * <p>
+ * SMHI answers a point forecast with the forecast of the closest cell of its grid, and returns
+ * the coordinates of that cell in {@code geometry.coordinates}. The index learns those cells:
+ * every downloaded forecast maps the requested {@code GridPoint} to the cell it was answered with.
+ * </p>
+ *
+ * <p>
+ * A point is snapped to a learned cell if its rounded {@code GridPoint} has been answered before,
+ * or if it lies within half the grid spacing of a learned cell, which is then always the closest cell.
+ * Other points are snapped to their rounded {@code GridPoint} until the cell is learned.
+ * The learned cells are kept on disk, so the caches and requests of every run share the same keys.
+ * The file is written in the background a moment after a cell is learned, so the cells learned
+ * close together are written at once and the callers never wait for the disk.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class GridIndex {
+    /**
+     * Spacing of the SMHI grid in kilometers.
+     */
+    private static final double GRID_SPACING_KM = 2.5;
+    /**
+     * Distance to a learned cell within which it is the closest cell.
+     */
+    private static final double SNAP_RADIUS_KM = GRID_SPACING_KM / 2;
+    /**
+     * Kilometers per degree of latitude.
+     */
+    private static final double KM_PER_DEGREE = 111.2;
+    /**
+     * Size of the buckets the learned cells are searched in, in degrees.
+     * A bucket is larger than the snap radius at every latitude with a forecast.
+     */
+    private static final double BUCKET_LAT = 0.05, BUCKET_LON = 0.1;
+    /**
+     * Time from a learned cell to the write of the file, in milliseconds.
+     */
+    private static final long STORE_DELAY_MS = 1000;
+    /**
+     * Writes the files of the learned cells, shared by every index.
+     */
+    private static final ScheduledExecutorService WRITER =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("grid-index-writer").daemon().factory());
+
+    /**
+     * The file the learned cells are stored in, {@code null} if they are only kept in memory.
+     */
+    private final Path file;
+    /**
+     * The cell of every snapped point.
+     */
+    private final Map<GridPoint, GridPoint> cells;
+    /**
+     * The learned cells by bucket.
+     */
+    private final Map<Long, List<GridPoint>> buckets;
+    /**
+     * Whether cells have been learned since the file was last written.
+     */
+    private boolean storePending;
+    /**
+     * Held while the file is written, so an older copy of the cells never replaces a newer one.
+     */
+    private final Object storeLock = new Object();
+
+    private static final Logger logger = LogManager.getLogger(GridIndex.class);
+
+    /**
+     * Constructs a {@code GridIndex} stored in the given file and reads the cells learned before.
+     *
+     * @param file The file the learned cells are stored in, {@code null} to only keep them in memory.
+     */
+    public GridIndex(Path file) {
+        this.file = file;
+
+        cells = new ConcurrentHashMap<>();
+        buckets = new HashMap<>();
+        if (file != null) load();
+    }
+
+    /**
+     * Creates the index of the application in the app data directory.
+     *
+     * @return The {@code GridIndex} of the application.
+     */
+    public static GridIndex createDefault() {
+        GridIndex index = new GridIndex(AppData.getDirectory().resolve("grid.properties"));
+        Runtime.getRuntime().addShutdownHook(new Thread(index::flush, "grid-index-flush"));
+        return index;
+    }
+
+    /**
+     * Snaps the coordinates to the grid.
+     *
+     * @param lon Longitude
+     * @param lat Latitude
+     * @return The learned cell of the coordinates, or the rounded {@code GridPoint} if the cell is not known.
+     */
+    public GridPoint snap(double lon, double lat) {
+        GridPoint point = GridPoint.snap(lon, lat);
+        GridPoint cell = cells.get(point);
+        if (cell != null) return cell;
+
+        cell = closest(lon, lat);
+        if (cell == null) return point;
+
+        cells.put(point, cell);
+        return cell;
+    }
+
+    /**
+     * Learns the cell a point was answered with.
+     *
+     * @param requested The snapped point the forecast was requested for.
+     * @param cell The cell of the forecast, from {@code geometry.coordinates}.
+     */
+    public synchronized void learn(GridPoint requested, GridPoint cell) {
+        if (cell.equals(cells.get(requested))) return;
+
+        add(requested, cell);
+        add(GridPoint.snap(cell.lon(), cell.lat()), cell);
+
+        logger.debug("Learned grid cell {} for {}", cell, requested);
+        if (file != null && !storePending) {
+            storePending = true;
+            WRITER.schedule(this::flush, STORE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the learned cells to the file now if they have changed since it was last written.
+     */
+    public void flush() {
+        synchronized (storeLock) {
+            Properties properties;
+            synchronized (this) {
+                if (!storePending) return;
+                storePending = false;
+                properties = toProperties();
+            }
+            store(properties);
+        }
+    }
+
+    /**
+     * Returns the amount of learned cells.
+     *
+     * @return The amount of cells.
+     */
+    public synchronized int size() {
+        return buckets.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Returns the learned cell closest to the coordinates, if it is within the snap radius.
+     *
+     * @param lon Longitude
+     * @param lat Latitude
+     * @return The closest cell, or {@code null} if no learned cell is within the snap radius.
+     */
+    private synchronized GridPoint closest(double lon, double lat) {
+        long latBucket = (long) Math.floor(lat / BUCKET_LAT), lonBucket = (long) Math.floor(lon / BUCKET_LON);
+        GridPoint closest = null;
+        double closestKm = SNAP_RADIUS_KM;
+
+        for (long i = latBucket - 1; i <= latBucket + 1; i++) {
+            for (long j = lonBucket - 1; j <= lonBucket + 1; j++) {
+                for (GridPoint cell : buckets.getOrDefault(key(i, j), List.of())) {
+                    double km = distanceKm(lon, lat, cell);
+                    if (km < closestKm) {
+                        closest = cell;
+                        closestKm = km;
+                    }
+                }
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Returns the distance from the coordinates to a cell, flat over the short distances of a cell.
+     *
+     * @param lon Longitude
+     * @param lat Latitude
+     * @param cell The cell.
+     * @return The distance in kilometers.
+     */
+    private static double distanceKm(double lon, double lat, GridPoint cell) {
+        double dLat = (lat - cell.lat()) * KM_PER_DEGREE;
+        double dLon = (lon - cell.lon()) * KM_PER_DEGREE * Math.cos(Math.toRadians((lat + cell.lat()) / 2));
+        return Math.sqrt(dLat * dLat + dLon * dLon);
+    }
+
+    /**
+     * Returns the bucket of the coordinates.
+     *
+     * @param lon Longitude
+     * @param lat Latitude
+     * @return The key of the bucket.
+     */
+    private static long bucket(double lon, double lat) {
+        return key((long) Math.floor(lat / BUCKET_LAT), (long) Math.floor(lon / BUCKET_LON));
+    }
+    /**
+     * Returns the key of a bucket.
+     *
+     * @param latBucket Row of the bucket.
+     * @param lonBucket Column of the bucket.
+     * @return The key of the bucket.
+     */
+    private static long key(long latBucket, long lonBucket) {
+        return (latBucket << 32) ^ (lonBucket & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Copies the learned cells, as the snapped point and the cell it maps to.
+     *
+     * @return The cells as {@code Properties}.
+     */
+    private Properties toProperties() {
+        Properties properties = new Properties();
+        cells.forEach((point, cell) -> properties.setProperty(
+            point.id(),
+            String.format(Locale.ROOT, "%s,%s", cell.lon(), cell.lat())
+        ));
+        return properties;
+    }
+
+    /**
+     * Writes the cells to a temporary file and moves it over the file,
+     * so a write that is cut short never leaves a truncated file.
+     *
+     * @param properties The cells.
+     */
+    private void store(Properties properties) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "grid", ".tmp");
+
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "Weather App grid cells");
+            }
+
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write grid index {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the learned cells from the file.
+     */
+    private void load() {
+        Properties properties = new Properties();
+
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+
+            for (String id : properties.stringPropertyNames()) {
+                String[] point = id.split("_"), cell = properties.getProperty(id).split(",");
+                add(
+                    new GridPoint(Double.parseDouble(point[0]), Double.parseDouble(point[1])),
+                    new GridPoint(Double.parseDouble(cell[0]), Double.parseDouble(cell[1]))
+                );
+            }
+            logger.info("Read {} grid cells", size());
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unreadable grid index {}: {}", file, e.getMessage());
+            cells.clear();
+            buckets.clear();
+        }
+    }
+
+    /**
+     * Maps a snapped point to a cell without writing the file.
+     *
+     * @param point The snapped point.
+     * @param cell The cell it maps to.
+     */
+    private void add(GridPoint point, GridPoint cell) {
+        cells.put(point, cell);
+        List<GridPoint> bucket = buckets.computeIfAbsent(bucket(cell.lon(), cell.lat()), b -> new ArrayList<>());
+        if (!bucket.contains(cell)) bucket.add(cell);
+    }
+}
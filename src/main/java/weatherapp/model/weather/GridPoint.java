@@ -0,0 +1,54 @@
+package weatherapp.model.weather;
+
+import java.util.Locale;
+
+/**
+ * {@code GridPoint} is a data class that contains the coordinates a forecast is requested for.
+ * <p>
+ * Coordinates are snapped to {@value #DECIMALS} decimals, so nearby locations
+ * share the same request and cache entry.
+ *
+ * @param lon Longitude
+ * @param lat Latitude
+ * @author Axel Lönnby Wesselgren
+ */
+public record GridPoint(double lon, double lat) {
+    /**
+     * Amount of decimals the coordinates are snapped to.
+     */
+    public static final int DECIMALS = 2;
+    /**
+     * Factor used for the snapping.
+     */
+    private static final double SCALE = Math.pow(10, DECIMALS);
+
+    /**
+     * Snaps the coordinates to the grid.
+     *
+     * @param lon Longitude
+     * @param lat Latitude
+     * @return The {@code GridPoint} of the coordinates.
+     */
+    public static GridPoint snap(double lon, double lat) {
+        return new GridPoint(Math.round(lon * SCALE) / SCALE, Math.round(lat * SCALE) / SCALE);
+    }
+
+    /**
+     * Returns an identifier of the point that can be used in file names and keys.
+     *
+     * @return The identifier, eg. {@code 18.06_59.33}.
+     */
+    public String id() {
+        return String.format(Locale.ROOT, "%." + DECIMALS + "f_%." + DECIMALS + "f", lon, lat);
+    }
+
+    /**
+     * Returns the string representation of the point.
+     *
+     * @return Longitude and latitude.
+     */
+    @Override
+    public String toString() {
+        return "lon " + lon + ", lat " + lat;
+    }
+}
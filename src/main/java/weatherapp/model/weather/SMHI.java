@@ -1,12 +1,13 @@
 package weatherapp.model.weather;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
-import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Instant;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
@@ -15,7 +16,13 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import weatherapp.enums.Endpoint;
+import weatherapp.interfaces.JSONStreamHandler;
+import weatherapp.metrics.Counter;
+import weatherapp.metrics.Histogram;
+import weatherapp.metrics.Metrics;
 import weatherapp.model.Settings;
+import weatherapp.model.cache.ForecastCache;
 import weatherapp.model.json.JSONReader;
 
 /**
@@ -23,35 +30,36 @@ import weatherapp.model.json.JSONReader;
  * <p>
  * It fetches the weather data for the next 10 days and returns it as a {@code List} of {@code Weather} objects.
  * <p>
- * Uses {@code JSONReader} to read JSON from the URL.
+ * Uses {@code JSONReader} to stream the JSON from the URL, every timestamp is
+ * decoded into the forecast as soon as it has been downloaded.
  * 
  * @author Axel Lönnby Wesselgren
  */
 public class SMHI {
     /**
-     * Date and Time of the iteration.
+     * Valid time of the iteration as UTC epoch seconds.
      */
-    private String iterateDate, iterateTime;
+    private long iterateTime;
     /**
-     * List of {@code Weather} objects to return.
+     * List of {@code Weather} objects to return, it can't be modified once it is returned.
      */
     private List<Weather> weathers;
     /**
-     * List of {@code Timestamp} objects to add to the {@code Weather} object.
+     * Store that holds the timestamps of the forecast.
      */
-    private List<Timestamp> timestamps;
-    /**
-     * List of JSONObjects to store the timestamps.
-     */
-    private List<JSONObject> timestampsJSON;
+    private ForecastStore store;
     /**
      * Current JSONArray to iterate.
      */
     private JSONArray currentArray;
     /**
-     * Current date of the API.
+     * Disk cache of the forecasts, {@code null} if no cache is used.
+     */
+    private ForecastCache cache;
+    /**
+     * Index that snaps the coordinates to the grid, {@code null} to round them.
      */
-    private LocalDate currentDate;
+    private GridIndex grid;
     /**
      * Settings object to use the settings.
      */
@@ -64,26 +72,47 @@ public class SMHI {
      * Weather type of the iteration.
      */
     private int weatherType;
+    /**
+     * Time spent decoding the last read forecast and splitting it into days, in nanoseconds.
+     */
+    private long parseNanos, aggregateNanos;
 
     /**
-     * URL to fetch the weather data from.
+     * Path of the weather data on the {@code SMHI} endpoint.
      * {lon} and {lat} are placeholders for the longitude and latitude.
      */
-    private static final String GEO_URL = "https://opendata-download-metfcst.smhi.se/api/category/pmp3g/version/2/geotype/point/lon/{lon}/lat/{lat}/data.json";
+    private static final String GEO_PATH = "/api/category/pmp3g/version/2/geotype/point/lon/{lon}/lat/{lat}/data.json";
     /**
      * Constants for the JSON keys.
      */
-    private static final String TIME_SERIES, VALID_TIME, VALUES, PARAMETERS;
+    private static final String TIME_SERIES, VALID_TIME, VALUES, PARAMETERS, APPROVED_TIME, REFERENCE_TIME, GEOMETRY, COORDINATES;
     /**
      * Logger for the {@code SMHI} class.
      */
     private static final Logger LOGGER = LogManager.getLogger(SMHI.class);
+    /**
+     * Time to download a forecast, excluding the decoding that is done while it downloads,
+     * time to decode a forecast into the store and time to split a forecast into days.
+     */
+    private static final Histogram DOWNLOAD = Metrics.histogram("smhi.download"),
+                                   PARSE = Metrics.histogram("smhi.parse"),
+                                   AGGREGATE = Metrics.histogram("weather.aggregate");
+    /**
+     * Amount of downloaded forecasts, their uncompressed bytes and amount of forecasts read from the disk cache.
+     */
+    private static final Counter DOWNLOADS = Metrics.counter("smhi.downloads"),
+                                 DOWNLOAD_BYTES = Metrics.counter("smhi.download.bytes"),
+                                 CACHE_HITS = Metrics.counter("smhi.cache.hits");
 
     static {
         TIME_SERIES = "timeSeries";
         VALID_TIME = "validTime";
         VALUES = "values";
         PARAMETERS = "parameters";
+        APPROVED_TIME = "approvedTime";
+        REFERENCE_TIME = "referenceTime";
+        GEOMETRY = "geometry";
+        COORDINATES = "coordinates";
     }
 
     /**
@@ -92,9 +121,8 @@ public class SMHI {
      * @param settings settings to use.
      */
     public SMHI(Settings settings) {
-        weathers = new ArrayList<>();
-        timestamps = new ArrayList<>();
-        timestampsJSON = new ArrayList<>();
+        reset();
+        this.settings = settings;
     }
 
     /**
@@ -105,71 +133,242 @@ public class SMHI {
     public void setSettings(Settings settings) {
         this.settings = settings;
     }
+    /**
+     * Sets the disk cache that is used by {@link #getForecast(double, double)}.
+     * 
+     * @param cache cache to use, {@code null} to always download.
+     */
+    public void setCache(ForecastCache cache) {
+        this.cache = cache;
+    }
+    /**
+     * Sets the index that snaps the coordinates of {@link #getForecast(double, double)} to the grid.
+     * The index learns the grid cell of every downloaded forecast.
+     * 
+     * @param grid index to use, {@code null} to round the coordinates.
+     */
+    public void setGrid(GridIndex grid) {
+        this.grid = grid;
+    }
+    /**
+     * Returns the forecast that was read last.
+     * 
+     * @return the last read forecast as a {@code ForecastStore}.
+     */
+    public ForecastStore getStore() {
+        return store;
+    }
     
     /**
-     * Clears all the lists 
+     * Starts a new list and store.
      */
     public void reset() {
-        weathers.clear();
-        timestamps.clear();
-        timestampsJSON.clear();
+        weathers = List.of();
+        store = new ForecastStore();
+        parseNanos = 0;
+        aggregateNanos = 0;
+    }
+
+    /**
+     * Returns the forecast of the grid point closest to the given coordinates.
+     * A fresh forecast in the disk cache is used without any request,
+     * otherwise the forecast is downloaded and put in the cache under the grid cell it was answered with.
+     * 
+     * @param lon longitude
+     * @param lat latitude
+     * @return the forecast as a {@code ForecastStore}.
+     * @throws IOException if the weather data could not be fetched or read.
+     */
+    public ForecastStore getForecast(double lon, double lat) throws IOException {
+        GridPoint point = grid != null ? grid.snap(lon, lat) : GridPoint.snap(lon, lat);
+
+        if (cache != null) {
+            ForecastStore cached = cache.get(point);
+            if (cached != null) {
+                LOGGER.info("Forecast read from cache: {}", point);
+                CACHE_HITS.increment();
+                return cached;
+            }
+        }
+
+        getWeather10D(generateURL(point.lon(), point.lat()));
+
+        GridPoint cell = store.getGridPoint();
+        if (cell == null) cell = point;
+        else if (grid != null) grid.learn(point, cell);
+
+        if (cache != null) cache.put(cell, store);
+        return store;
     }
 
     /**
-     * Returns a 10 day weather forecast based on the given URL
+     * Returns a 10 day weather forecast for the grid point closest to the given coordinates.
+     * 
+     * @param lon longitude
+     * @param lat latitude
+     * @return a 10 day weather forecast as a {@code List} of {@code Weather} objects.
+     * @throws IOException if the weather data could not be fetched or read.
+     * @see #getForecast(double, double)
+     */
+    public List<Weather> getWeather10D(double lon, double lat) throws IOException {
+        return getWeather10D(getForecast(lon, lat));
+    }
+
+    /**
+     * Returns a 10 day weather forecast from an already read forecast.
+     * 
+     * @param forecast the forecast to split into days.
+     * @return a 10 day weather forecast as a {@code List} of {@code Weather} objects.
+     */
+    public List<Weather> getWeather10D(ForecastStore forecast) {
+        store = forecast;
+        splitDays();
+        return weathers;
+    }
+
+    /**
+     * Returns a 10 day weather forecast based on the given URL.
+     * The response is parsed while it is being downloaded.
      * 
      * @param URL URL to fetch the weather data from.
      * @return a 10 day weather forecast as a {@code List} of {@code Weather} objects.
+     * @throws IOException if the weather data could not be fetched or read.
      */
-    public List<Weather> getWeather10D(String URL) {
+    public List<Weather> getWeather10D(String URL) throws IOException {
+        long start = System.nanoTime();
+
+        try (CountingInputStream inputStream = new CountingInputStream(JSONReader.openStream(URL))) {
+            List<Weather> read = getWeather10D(inputStream);
+
+            DOWNLOAD.record(System.nanoTime() - start - parseNanos - aggregateNanos);
+            DOWNLOADS.increment();
+            DOWNLOAD_BYTES.add(inputStream.count);
+            return read;
+        } catch (IOException e) {
+            LOGGER.error("Connection FAILED: {}", URL);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a 10 day weather forecast read from the given stream.
+     * Every element of {@code timeSeries} is decoded into the forecast as soon as it is read,
+     * the full JSON document is never built. The time spent decoding is recorded as {@code smhi.parse}.
+     * 
+     * @param inputStream stream with the SMHI JSON response.
+     * @return a 10 day weather forecast as a {@code List} of {@code Weather} objects.
+     * @throws IOException if the JSON is not valid or contains no timestamps.
+     */
+    public List<Weather> getWeather10D(InputStream inputStream) throws IOException {
         reset();
 
-        updateJSONTimestamps(URL);
-        LOGGER.info("JSON Timestamps read");
-        updateCurrentDate();
-        LOGGER.info("API Date: {}", currentDate.toString());
+        try {
+            JSONReader.readStream(inputStream, TIME_SERIES, new JSONStreamHandler() {
+                @Override
+                public void field(String key, Object value) {
+                    long start = System.nanoTime();
+                    readField(key, value);
+                    parseNanos += System.nanoTime() - start;
+                }
 
-        for (JSONObject j : timestampsJSON) {
-            updateIteration(j);
-            findValues();
-            checkIfNewDate();
-            addTimestamp();
+                @Override
+                public void element(JSONObject element) {
+                    long start = System.nanoTime();
+                    readTimestamp(element);
+                    parseNanos += System.nanoTime() - start;
+                }
+            });
+        } catch (JSONException e) {
+            LOGGER.error("JSON Code Error");
+            throw new IOException(e);
         }
-        
-        LOGGER.info("Weather Data read");
-        return weathers;
+
+        return finish();
     }
 
     /**
-     * Updates the JSON timestamps from the given URL
+     * Returns a 10 day weather forecast from an already parsed SMHI JSON response.
      * 
-     * @param url URL to fetch the JSON timestamps from.
+     * @param json the SMHI JSON response.
+     * @return a 10 day weather forecast as a {@code List} of {@code Weather} objects.
+     * @throws IOException if the JSON is not valid or contains no timestamps.
      */
-    private void updateJSONTimestamps(String url) {
+    public List<Weather> getWeather10D(JSONObject json) throws IOException {
+        reset();
+
+        long start = System.nanoTime();
         try {
-            JSONArray timeSeries = JSONReader.readJsonFromURL(url).getJSONArray(TIME_SERIES);
+            for (String key : json.keySet()) {
+                if (!key.equals(TIME_SERIES)) readField(key, json.get(key));
+            }
 
+            JSONArray timeSeries = json.getJSONArray(TIME_SERIES);
             for (int i = 0; i < timeSeries.length(); i++) {
-                timestampsJSON.add(timeSeries.getJSONObject(i));
+                readTimestamp(timeSeries.getJSONObject(i));
             }
-        } catch (IOException e) {
-            LOGGER.error("Connection FAILED: {}", url);
         } catch (JSONException e) {
             LOGGER.error("JSON Code Error");
+            throw new IOException(e);
         }
+        parseNanos = System.nanoTime() - start;
+
+        return finish();
     }
 
     /**
-     * Retrieves the date of the API response and updates the {@code currentDate} to that date.
+     * Checks that the response contained any timestamps and splits the read forecast into days.
+     * 
+     * @return the read forecast.
+     * @throws IOException if no timestamps were read.
      */
-    private void updateCurrentDate() {
-        currentDate = LocalDate.parse(
-            timestampsJSON.get(0)
-                        .getString(VALID_TIME)
-                        .split("T")
-                        [0], 
-            DateTimeFormatter.ofPattern("yyyy-MM-dd")
-        );
+    private List<Weather> finish() throws IOException {
+        if (store.size() == 0) throw new IOException("No timestamps in response");
+
+        PARSE.record(parseNanos);
+        store.trim();
+        LOGGER.info("API Date: {}", store.getDate(0).toString());
+        splitDays();
+        LOGGER.info("Weather Data read");
+        return weathers;
+    }
+
+    /**
+     * Reads a top level field of the response.
+     * The approved and reference time and the grid cell of the forecast are kept in the store.
+     * 
+     * @param key key of the field.
+     * @param value value of the field.
+     */
+    private void readField(String key, Object value) {
+        if (key.equals(APPROVED_TIME)) store.setApprovedTime(Instant.parse(value.toString()).getEpochSecond());
+        if (key.equals(REFERENCE_TIME)) store.setReferenceTime(Instant.parse(value.toString()).getEpochSecond());
+        if (key.equals(GEOMETRY) && value instanceof JSONObject geometry) readGeometry(geometry);
+    }
+
+    /**
+     * Reads the grid cell of the forecast from {@code geometry.coordinates}, {@code [[lon, lat]]}.
+     * A geometry that can't be read is ignored, the forecast is then kept under the requested point.
+     * 
+     * @param geometry JSON object of the geometry.
+     */
+    private void readGeometry(JSONObject geometry) {
+        JSONArray coordinates = geometry.optJSONArray(COORDINATES);
+        JSONArray cell = coordinates != null ? coordinates.optJSONArray(0) : null;
+        if (cell == null) return;
+
+        double lon = cell.optDouble(0), lat = cell.optDouble(1);
+        if (!Double.isNaN(lon) && !Double.isNaN(lat)) store.setGridPoint(new GridPoint(lon, lat));
+    }
+
+    /**
+     * Decodes one element of {@code timeSeries} into the forecast.
+     * 
+     * @param j JSON object of the timestamp.
+     */
+    private void readTimestamp(JSONObject j) {
+        updateIteration(j);
+        findValues();
+        addTimestamp();
     }
 
     /**
@@ -178,9 +377,7 @@ public class SMHI {
      * @param j JSON object to update the variables from.
      */
     private void updateIteration(JSONObject j) {
-        String[] dateTime = j.getString(VALID_TIME).split("T");
-        iterateDate = dateTime[0];
-        iterateTime = dateTime[1].replace("Z", "");
+        iterateTime = Instant.parse(j.getString(VALID_TIME)).getEpochSecond();
 
         currentArray = j.getJSONArray(PARAMETERS);
         weatherType = currentArray.getJSONObject(18)
@@ -204,49 +401,79 @@ public class SMHI {
     }
 
     /**
-     * Checks if the current timestamp iteration is a new date.
-     * If it is, it creates a new {@code Weather} object and ads it to the {@code weathers} list.
-     * It also updates the {@code currentDate} to the new date.
-     * And clears the {@code timestamps} list.
+     * Splits the store into days.
+     * Every time the date of a timestamp differs from the one before, a {@code Weather} view
+     * of the day that ended is added to a new list, that is kept as {@code weathers} when it can't be modified.
      */
-    private void checkIfNewDate() {
-        if (!currentDate.toString().equals(iterateDate)) {
-            weathers.add(new Weather(currentDate, timestamps, settings));
-            currentDate = LocalDate.parse(iterateDate);
+    private void splitDays() {
+        long start = System.nanoTime();
+        List<Weather> days = new ArrayList<>();
+        int dayStart = 0;
 
-            timestamps = new ArrayList<>();
+        for (int i = 1; i < store.size(); i++) {
+            if (store.getEpochDay(i) != store.getEpochDay(dayStart)) {
+                days.add(new Weather(store, dayStart, i, settings));
+                dayStart = i;
+            }
         }
+        weathers = Collections.unmodifiableList(days);
+        aggregateNanos = AGGREGATE.recordSince(start);
     }
     
     /**
-     * Adds a new {@code Timestamp} object to the {@code timestamps} list
-     * based on the current iteration variables.
+     * Adds the current iteration variables to the store.
      */
     private void addTimestamp() {
-        timestamps.add(
-            new Timestamp(
-                temp, 
-                windSpeed, 
-                gust, 
-                LocalTime.parse(iterateTime), 
-                weatherType,
-                settings
-            )
-        );
+        store.add(iterateTime, temp, windSpeed, gust, weatherType);
     }
 
     /**
      * Generates a custom URL based on the given longitude and latitude.
-     * The URL can be used to fetch weather data from SHMI API.
+     * The URL can be used to fetch weather data from SHMI API, or the base URL that replaces it.
      * 
      * @param lon longitude
      * @param lat latitude
      * @return a custom URL as a {@code String}.
      */
     public static String generateURL(double lon, double lat) {
-        String rs = GEO_URL;
+        String rs = Endpoint.SMHI.getBaseUrl() + GEO_PATH;
         rs = rs.replace("{lon}", String.valueOf(lon));
         rs = rs.replace("{lat}", String.valueOf(lat));
         return rs;
     }
-}
\ No newline at end of file
+
+    /**
+     * {@code CountingInputStream} counts the bytes that are read from a response body.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        /**
+         * Amount of bytes that have been read.
+         */
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
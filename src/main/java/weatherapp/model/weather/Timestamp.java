@@ -10,133 +10,146 @@ import weatherapp.tools.UnitConverter;
 
 /**
  * {@code Timestamp} is a class that contains weather data for a specific hour.
+ * It is a view of one point in a {@code ForecastStore} and holds no data of its own.
  * It extends {@code UnitConverter} to convert the data stored.
- * 
+ *
  * @author Axel Lönnby Wesselgren
  */
 public class Timestamp extends UnitConverter {
-    private final double temp, windSpeed, gust;
-    private final LocalTime time;
     /**
-     * Weather type of the timestamp eg. Clear sky, rain, snow.
+     * The store that holds the data of the timestamp.
      */
-    private final WeatherType weatherType;
+    private final ForecastStore store;
+    /**
+     * Index of the timestamp in the store.
+     */
+    private final int index;
 
     /**
-     * Constructs a {@code Timestamp} instance with the given parameters.
-     * It checks if the {@code WeatherType} is day or night and sets the correct weather type.
+     * Constructs a {@code Timestamp} view of the point at {@code index} in the store.
      * It also calls the super constructor to set the settings.
-     * 
-     * @param temp Temperature in Celsius as a {@code double}.
-     * @param windSpeed Wind speed in m/s as a {@code double}.
-     * @param gust Gust in m/s as a {@code double}.
-     * @param time Time of the timestamp
-     * @param weatherType The int corresponding to the weather type.
+     *
+     * @param store The store that holds the data.
+     * @param index Index of the point in the store.
      * @param settings Settings object to use the settings.
      */
-    public Timestamp(
-        double temp, 
-        double windSpeed, 
-        double gust, 
-        LocalTime time, 
-        int weatherType,
-        Settings settings
-    ) {
+    public Timestamp(ForecastStore store, int index, Settings settings) {
         super(settings);
-        this.temp = temp;
-        this.time = time;
-        this.windSpeed = windSpeed;
-        this.gust = gust;
-
-        if (isDay(time)) this.weatherType = WeatherDay.getWeather(weatherType);
-        else this.weatherType = WeatherNight.getWeather(weatherType);
+        this.store = store;
+        this.index = index;
     }
 
     /**
      * Checks if the hour is daytime or nighttime.
-     * 
+     *
      * @param time Time to check if it is day or night.
      * @return {@code true} if the time is between 6 and 20, {@code false} otherwise.
      */
     public static boolean isDay(LocalTime time) {
-        int hour = time.getHour();
-        if (hour > 5 && hour < 21) return true;
-        return false;
+        return isDay(time.getHour());
+    }
+    /**
+     * Checks if the hour is daytime or nighttime.
+     *
+     * @param hour Hour to check if it is day or night.
+     * @return {@code true} if the hour is between 6 and 20, {@code false} otherwise.
+     */
+    public static boolean isDay(int hour) {
+        return hour > 5 && hour < 21;
+    }
+    /**
+     * Returns the {@code WeatherType} of a weather symbol at the given hour.
+     *
+     * @param symbol The weather symbol.
+     * @param hour The hour, decides if the day or night type is used.
+     * @return The weather type.
+     */
+    public static WeatherType getWeatherType(int symbol, int hour) {
+        if (isDay(hour)) return WeatherDay.getWeather(symbol);
+        return WeatherNight.getWeather(symbol);
     }
 
     /**
      * Returns the temperature in Celsius.
-     * 
+     *
      * @return Temperature in Celsius as a {@code double}.
      */
     public double getTempC() {
-        return temp;
+        return store.getTemp(index);
     }
     /**
      * Returns the gust in m/s.
-     * 
+     *
      * @return Gust in m/s as a {@code double}.
      */
     public double getGustD() {
-        return gust;
+        return store.getGust(index);
     }
     /**
      * Returns the wind speed in m/s.
-     * 
+     *
      * @return Wind speed in m/s as a {@code double}.
      */
     public double getWindSpeedD() {
-        return windSpeed;
+        return store.getWindSpeed(index);
     }
 
     /**
      * Returns the time of the timestamp.
-     * 
+     *
      * @return Time of the timestamp as a {@code LocalTime}.
      */
     public LocalTime getTime() {
-        return time;
+        return store.getTime(index);
+    }
+    /**
+     * Returns the hour of the timestamp.
+     *
+     * @return Hour of the timestamp, 0 to 23.
+     */
+    public int getHour() {
+        return store.getHour(index);
     }
 
     /**
      * Returns the temperature as a {@code String} based on the settings.
-     * 
+     *
      * @return Temperature as a {@code String}.
      */
     public String getTemp() {
-        return getTemp(temp);
+        return getTemp(getTempC());
     }
     /**
      * Returns the gust as a {@code String} based on the settings.
-     * 
+     *
      * @return Gust as a {@code String}.
      */
     public String getGust() {
-        return getWind(gust);
+        return getWind(getGustD());
     }
     /**
      * Returns the wind speed as a {@code String} based on the settings.
-     * 
+     *
      * @return Wind speed as a {@code String}.
      */
     public String getWindSpeed() {
-        return getWind(windSpeed);
+        return getWind(getWindSpeedD());
     }
 
     /**
      * Returns the weather type of the timestamp.
-     * 
+     *
      * @return Weather type of the timestamp as a {@code WeatherType}.
      */
     public WeatherType getWeatherType() {
-        return weatherType;
+        return getWeatherType(store.getSymbol(index), getHour());
     }
     /**
      * Returns the file name of the weather type.
-     * 
+     *
      * @return File name of the weather type as a {@code String}.
      */
     public String getWeatherFileName() {
-        return weatherType.getFileName();
+        return getWeatherType().getFileName();
     }
 }
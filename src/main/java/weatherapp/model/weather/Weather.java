@@ -1,6 +1,7 @@
 package weatherapp.model.weather;
 
 import java.time.LocalDate;
+import java.util.AbstractList;
 import java.util.List;
 
 import weatherapp.interfaces.WeatherType;
@@ -9,15 +10,20 @@ import weatherapp.tools.UnitConverter;
 
 /**
  * {@code Weather} is a class that contains weather data for a specific day.
+ * It is a view of the points {@code from} (inclusive) to {@code to} (exclusive) in a {@code ForecastStore}.
  * It extends {@code UnitConverter} to convert the data stored.
- * 
+ *
  * @author Axel Lönnby Wesselgren
  */
 public class Weather extends UnitConverter {
     /**
-     * List of timestamps for the day as {@code Timestamp}.
+     * The store that holds the timestamps of the day.
      */
-    private final List<Timestamp> timestamps;
+    private final ForecastStore store;
+    /**
+     * Index range of the day in the store.
+     */
+    private final int from, to;
     /**
      * Date of the weather data.
      */
@@ -32,19 +38,23 @@ public class Weather extends UnitConverter {
      * Constructs a {@code Weather} instance with the given parameters.
      * It calculates the max and min temperature, wind speed and weather type.
      * It also calls the super constructor to set the settings.
-     * 
-     * @param date Date of the Weather forecast.
-     * @param timestamps List of timestamps for the day as {@code Timestamp}.
+     *
+     * @param store The store that holds the timestamps.
+     * @param from Index of the first timestamp of the day.
+     * @param to Index after the last timestamp of the day.
      * @param settings Settings object to use the settings.
      */
     public Weather(
-        LocalDate date, 
-        List<Timestamp> timestamps, 
+        ForecastStore store,
+        int from,
+        int to,
         Settings settings
     ) {
         super(settings);
-        this.date = date;
-        this.timestamps = timestamps;
+        this.store = store;
+        this.from = from;
+        this.to = to;
+        this.date = store.getDate(from);
 
         findMaxMin();
         calcWindSpeed();
@@ -53,33 +63,27 @@ public class Weather extends UnitConverter {
 
     /**
      * Finds the max and min temperature and gust for the day.
-     * Uses streams to find the max and min values via the {@code Timestamp} and its methods 
-     * {@code getTempC()}, {@code getGustD()}.
      */
     private void findMaxMin() {
-        minT = timestamps.stream()
-            .mapToDouble(Timestamp::getTempC)
-            .min()
-            .orElse(Double.MIN_VALUE);
-            
-        maxT = timestamps.stream()
-            .mapToDouble(Timestamp::getTempC)
-            .max()
-            .orElse(Double.MAX_VALUE);
+        minT = Double.MAX_VALUE;
+        maxT = -Double.MAX_VALUE;
+        gust = -Double.MAX_VALUE;
 
-        gust = timestamps.stream()
-            .mapToDouble(Timestamp::getGustD)
-            .max()
-            .orElse(Double.MAX_VALUE);
+        for (int i = from; i < to; i++) {
+            minT = Math.min(minT, store.getTemp(i));
+            maxT = Math.max(maxT, store.getTemp(i));
+            gust = Math.max(gust, store.getGust(i));
+        }
     }
 
     /**
-     * Calculates the average wind speed for the day
-     * via the {@code timestamps} list.
+     * Calculates the average wind speed for the day.
      */
     private void calcWindSpeed() {
-        timestamps.forEach(t -> windSpeed += t.getWindSpeedD());
-        windSpeed /= timestamps.size();
+        for (int i = from; i < to; i++) {
+            windSpeed += store.getWindSpeed(i);
+        }
+        windSpeed /= to - from;
     }
 
     /**
@@ -94,40 +98,49 @@ public class Weather extends UnitConverter {
         if (checkHour(14)) return;
         if (checkHour(12)) return;
 
-        weatherType = timestamps.get(0).getWeatherType();
+        weatherType = typeAt(from);
     }
     /**
      * Checks if the Weather forecast date is the same as the local date.
      * If so the weather type is set to the first timestamp.
-     * 
+     *
      * @return {@code true} if the date is the same as the local date, {@code false} otherwise.
      */
     private boolean checkDate() {
         if (date.equals(LocalDate.now())) {
-            weatherType = timestamps.get(0).getWeatherType();
+            weatherType = typeAt(from);
         }
         return weatherType != null;
     }
     /**
-     * Checks if the hour exists in the timestamps list.
+     * Checks if the hour exists in the timestamps of the day.
      * If so the weather type is set to the timestamp with that hour.
-     * 
-     * @param hour Hour to check if it exists in the timestamps list.
-     * @return {@code true} if the hour exists in the timestamps list, {@code false} otherwise.
+     *
+     * @param hour Hour to check if it exists in the timestamps of the day.
+     * @return {@code true} if the hour exists in the timestamps, {@code false} otherwise.
      */
     private boolean checkHour(int hour) {
-        weatherType = timestamps.stream()
-            .filter(t -> t.getTime().getHour() == hour)
-            .map(Timestamp::getWeatherType)
-            .findFirst()
-            .orElse(null);
-
-        return weatherType != null;
+        for (int i = from; i < to; i++) {
+            if (store.getHour(i) == hour) {
+                weatherType = typeAt(i);
+                return weatherType != null;
+            }
+        }
+        return false;
+    }
+    /**
+     * Returns the weather type of the timestamp at the index.
+     *
+     * @param i Index of the timestamp in the store.
+     * @return The weather type of the timestamp.
+     */
+    private WeatherType typeAt(int i) {
+        return Timestamp.getWeatherType(store.getSymbol(i), store.getHour(i));
     }
 
     /**
      * Returns the max gust with the correct unit using {@code settings}.
-     * 
+     *
      * @return Max gust using the correct unit via {@code settings}.
      */
     public String getGustMax() {
@@ -135,7 +148,7 @@ public class Weather extends UnitConverter {
     }
     /**
      * Returns the average wind speed with the correct unit using {@code settings}.
-     * 
+     *
      * @return Average wind speed using the correct unit via {@code settings}.
      */
     public String getWindSpeedAvg() {
@@ -143,7 +156,7 @@ public class Weather extends UnitConverter {
     }
     /**
      * Returns the max and min temperature with the correct unit using {@code settings}.
-     * 
+     *
      * @return Max temperature using the correct unit via {@code settings}.
      */
     public String getMaxT() {
@@ -151,49 +164,84 @@ public class Weather extends UnitConverter {
     }
     /**
      * Returns the min temperature with the correct unit using {@code settings}.
-     * 
+     *
      * @return Min temperature using the correct unit via {@code settings}.
      */
     public String getMinT() {
         return getTemp(minT);
     }
 
+    /**
+     * Returns the max temperature in Celsius.
+     *
+     * @return Max temperature in Celsius.
+     */
+    public double getMaxTC() {
+        return maxT;
+    }
+    /**
+     * Returns the min temperature in Celsius.
+     *
+     * @return Min temperature in Celsius.
+     */
+    public double getMinTC() {
+        return minT;
+    }
+    /**
+     * Returns the average wind speed in m/s.
+     *
+     * @return Average wind speed in m/s.
+     */
+    public double getWindSpeedAvgD() {
+        return windSpeed;
+    }
+    /**
+     * Returns the max gust in m/s.
+     *
+     * @return Max gust in m/s.
+     */
+    public double getGustMaxD() {
+        return gust;
+    }
+
     /**
      * Returns the date of the weather forecast.
-     * 
+     *
      * @return Date of the weather forecast.
      */
     public LocalDate getDate() {
         return date;
     }
     /**
-     * Returns the timestamps list.
-     * 
+     * Returns the timestamps of the day as a read only list.
+     * The {@code Timestamp} views are created on access and use the current settings of the weather.
+     *
      * @return List of timestamps for the day as {@code Timestamp}.
      */
     public List<Timestamp> getTimeStamps() {
-        return timestamps;
+        return new AbstractList<>() {
+            @Override
+            public Timestamp get(int index) {
+                return new Timestamp(store, from + index, getSettings());
+            }
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
     }
     /**
      * Returns the weather type of the day.
-     * 
+     *
      * @return Weather type of the day.
      */
     public WeatherType getWeatherType() {
         return weatherType;
     }
 
-    /**
-     * Updates the settings for the weather and all timestamps.
-     */
-    @Override
-    public void setSettings(Settings settings) {
-        super.setSettings(settings);
-        timestamps.forEach(t -> t.setSettings(settings));
-    }
     /**
      * Returns a string representation of the {@code Weather} object.
-     * 
+     *
      * @return String representation of the {@code Weather} object.
      */
     @Override
@@ -204,9 +252,9 @@ public class Weather extends UnitConverter {
         sb.append("Min T: " + minT + "\n");
         sb.append("Date: " + date + "\n\n");
 
-        timestamps.forEach(t -> {
-            sb.append(t.getTime() + " Temp: " + t.getTempC() + "\n");
-        });
+        for (int i = from; i < to; i++) {
+            sb.append(store.getTime(i) + " Temp: " + store.getTemp(i) + "\n");
+        }
 
         return sb.toString();
     }
@@ -0,0 +1,440 @@
+package weatherapp.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import weatherapp.enums.OutputFormat;
+import weatherapp.headless.ForecastWriter;
+import weatherapp.metrics.Histogram;
+import weatherapp.metrics.Metrics;
+import weatherapp.model.Settings;
+import weatherapp.model.cache.ForecastCache;
+import weatherapp.model.service.ForecastFetcher;
+import weatherapp.model.service.ForecastService;
+import weatherapp.model.weather.ForecastStore;
+import weatherapp.model.weather.GridIndex;
+import weatherapp.model.weather.GridPoint;
+import weatherapp.model.weather.SMHI;
+
+/**
+ * {@code ForecastServer} serves forecasts over HTTP from an embedded {@code HttpServer}.
+ *
+ * <p>
+ * Every request is handled on its own virtual thread. The forecasts are served from
+ * the memory of a {@code ForecastService}, so {@code SMHI} is only called on a miss.
+ * The JSON of a forecast is rendered once per grid point and units and served as is
+ * until the service hands out a new forecast for the point.
+ * </p>
+ *
+ * <p>
+ * The expired forecasts of the service are purged at least every {@code PURGE_INTERVAL},
+ * and a rendered forecast is dropped with the forecast it was rendered from.
+ * </p>
+ *
+ * <ul>
+ * <li>{@code GET /forecast?lat=&lon=&units=metric|imperial}: the 10 day forecast as JSON,
+ * in the same format as {@code --headless}, with the coordinates of the grid point.</li>
+ * <li>{@code GET /health}: status, uptime, served requests and the forecasts in memory.</li>
+ * </ul>
+ *
+ * <p>
+ * Usage: {@code --serve[=port]}, the default port is {@value #DEFAULT_PORT}.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class ForecastServer {
+    /**
+     * The argument that starts the server.
+     */
+    public static final String ARGUMENT = "--serve";
+    /**
+     * The default port of the server.
+     */
+    public static final int DEFAULT_PORT = 8080;
+    /**
+     * System property of the JDK server that disables Nagle's algorithm on the connections.
+     * Without it a response on a kept alive connection waits for the delayed ACK of the client, about 40 ms.
+     */
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    /**
+     * Longest time between two purges of the expired forecasts.
+     */
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(5);
+
+    /**
+     * The embedded server.
+     */
+    private final HttpServer server;
+    /**
+     * Executor that handles every request on its own virtual thread.
+     */
+    private final ExecutorService executor;
+    /**
+     * Purges the expired forecasts.
+     */
+    private final ScheduledExecutorService purger;
+    /**
+     * The service the forecasts are served from.
+     */
+    private final ForecastService service;
+    /**
+     * Amount of handled requests and requests that failed.
+     */
+    private final LongAdder requests, errors;
+    /**
+     * The rendered forecasts by grid point and units.
+     */
+    private final Map<ResponseKey, Response> responses;
+    /**
+     * Time the server was started in nanoseconds.
+     */
+    private long startedAt;
+
+    /**
+     * Time to handle a {@code /forecast} request.
+     */
+    private static final Histogram REQUEST = Metrics.histogram("server.request");
+
+    private static final Logger logger = LogManager.getLogger(ForecastServer.class);
+
+    /**
+     * Key of a rendered forecast.
+     *
+     * @param point The grid point of the forecast.
+     * @param metric {@code true} if metric, {@code false} if imperial.
+     */
+    private record ResponseKey(GridPoint point, boolean metric) {}
+    /**
+     * A rendered forecast.
+     *
+     * @param store The forecast it was rendered from.
+     * @param body The JSON body.
+     */
+    private record Response(ForecastStore store, byte[] body) {}
+
+    /**
+     * Constructs a {@code ForecastServer} bound to the given port, it is not started.
+     *
+     * @param port The port to listen on, 0 for any free port.
+     * @param service The service the forecasts are served from.
+     * @throws IOException if the port can't be bound.
+     */
+    public ForecastServer(int port, ForecastService service) throws IOException {
+        this.service = service;
+
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) System.setProperty(NO_DELAY_PROPERTY, "true");
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-", 0).factory());
+        server.setExecutor(executor);
+        server.createContext("/forecast", this::handleForecast);
+        server.createContext("/health", this::handleHealth);
+        purger = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("http-purge").factory());
+
+        requests = new LongAdder();
+        errors = new LongAdder();
+        responses = new ConcurrentHashMap<>();
+
+        Metrics.gauge("server.requests", requests::sum);
+        Metrics.gauge("server.errors", errors::sum);
+        Metrics.gauge("service.forecasts", service::size);
+        Metrics.gauge("service.hits", service::getHits);
+        Metrics.gauge("service.misses", service::getMisses);
+        Metrics.gauge("fetcher.issued", service.getFetcher()::getIssued);
+        Metrics.gauge("fetcher.coalesced", service.getFetcher()::getCoalesced);
+    }
+
+    /**
+     * Starts the server on the argument port with the forecast cache of the application
+     * and blocks until the process is stopped.
+     *
+     * @param args the command line arguments
+     * @return The exit status, only returned if the server can't be started.
+     */
+    public static int run(String[] args) {
+        int port = DEFAULT_PORT;
+
+        for (String arg : args) {
+            if (!arg.startsWith(ARGUMENT + "=")) continue;
+            try {
+                port = Integer.parseInt(arg.substring(ARGUMENT.length() + 1));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid port: " + arg);
+                return 2;
+            }
+        }
+
+        try {
+            ForecastFetcher fetcher = new ForecastFetcher(ForecastCache.createDefault(), GridIndex.createDefault());
+            ForecastServer server = new ForecastServer(port, new ForecastService(fetcher, ForecastCache.DEFAULT_TTL));
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(Duration.ofSeconds(1))));
+            Thread.currentThread().join();
+            return 0;
+        } catch (IOException e) {
+            logger.error("Failed to start server: {}", e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    /**
+     * Starts the server.
+     */
+    public void start() {
+        startedAt = System.nanoTime();
+        long interval = Math.max(1, Math.min(service.getTtl().toMillis(), PURGE_INTERVAL.toMillis()));
+        purger.scheduleWithFixedDelay(this::purge, interval, interval, TimeUnit.MILLISECONDS);
+        server.start();
+        logger.info("Forecast server listening on port {}", getPort());
+    }
+
+    /**
+     * Stops the server, waiting at most {@code delay} for the requests being handled.
+     *
+     * @param delay The longest time to wait for the requests being handled.
+     */
+    public void stop(Duration delay) {
+        server.stop((int) delay.toSeconds());
+        purger.shutdownNow();
+        executor.shutdownNow();
+        logger.info("Forecast server stopped after {} requests", requests.sum());
+    }
+
+    /**
+     * Removes the expired forecasts from the service and the rendered forecasts
+     * of every forecast that is no longer in the service.
+     */
+    private void purge() {
+        try {
+            service.purgeExpired();
+            responses.entrySet().removeIf(e -> !service.isCurrent(e.getKey().point(), e.getValue().store()));
+        } catch (RuntimeException e) {
+            logger.error("Failed to purge forecasts: {}", e.toString());
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Handles {@code /forecast}.
+     *
+     * @param exchange The request and response.
+     * @throws IOException if the response can't be written.
+     */
+    private void handleForecast(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try {
+            serveForecast(exchange);
+        } finally {
+            REQUEST.recordSince(start);
+        }
+    }
+
+    /**
+     * Serves a forecast from the service.
+     *
+     * @param exchange The request and response.
+     * @throws IOException if the response can't be written.
+     */
+    private void serveForecast(HttpExchange exchange) throws IOException {
+        requests.increment();
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, error("Only GET is allowed"));
+            return;
+        }
+
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        double lat, lon;
+        boolean metric;
+
+        try {
+            lat = parseCoordinate(query.get("lat"), 90);
+            lon = parseCoordinate(query.get("lon"), 180);
+            metric = parseUnits(query.getOrDefault("units", "metric"));
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+            return;
+        }
+
+        GridPoint point = service.getFetcher().snap(lon, lat);
+        ForecastStore store;
+        try {
+            store = service.getForecast(lon, lat);
+        } catch (IOException e) {
+            logger.error("Failed to read forecast for lat {}, lon {}: {}", lat, lon, e.toString());
+            send(exchange, 502, error("The forecast could not be fetched"));
+            return;
+        }
+
+        ResponseKey key = new ResponseKey(point, metric);
+        Response response = responses.get(key);
+        if (response == null || response.store() != store) {
+            response = new Response(store, render(store.getGridPoint() != null ? store.getGridPoint() : point, store, metric));
+            responses.put(key, response);
+        }
+        send(exchange, 200, response.body());
+    }
+
+    /**
+     * Renders a forecast as JSON.
+     *
+     * @param point The grid point of the forecast.
+     * @param store The forecast.
+     * @param metric {@code true} if metric, {@code false} if imperial.
+     * @return The JSON body.
+     */
+    private static byte[] render(GridPoint point, ForecastStore store, boolean metric) {
+        Settings settings = new Settings(metric, true, true);
+        ForecastWriter writer = new ForecastWriter(OutputFormat.JSON, settings);
+        writer.add(point.lat(), point.lon(), new SMHI(settings).getWeather10D(store));
+        return writer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Handles {@code /health}.
+     *
+     * @param exchange The request and response.
+     * @throws IOException if the response can't be written.
+     */
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        requests.increment();
+
+        JSONObject health = new JSONObject()
+            .put("status", "ok")
+            .put("uptimeSeconds", (System.nanoTime() - startedAt) / 1_000_000_000L)
+            .put("requests", requests.sum())
+            .put("errors", errors.sum())
+            .put("forecasts", service.size())
+            .put("hits", service.getHits())
+            .put("misses", service.getMisses())
+            .put("fetchesIssued", service.getFetcher().getIssued())
+            .put("fetchesCoalesced", service.getFetcher().getCoalesced());
+
+        send(exchange, 200, health.toString());
+    }
+
+    /**
+     * Writes a JSON response and closes the exchange.
+     *
+     * @param exchange The request and response.
+     * @param status The status code.
+     * @param body The JSON body.
+     * @throws IOException if the response can't be written.
+     */
+    private void send(HttpExchange exchange, int status, String body) throws IOException {
+        send(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a JSON response and closes the exchange.
+     *
+     * @param exchange The request and response.
+     * @param status The status code.
+     * @param bytes The JSON body in UTF-8.
+     * @throws IOException if the response can't be written.
+     */
+    private void send(HttpExchange exchange, int status, byte[] bytes) throws IOException {
+        if (status >= 400) errors.increment();
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Returns an error body.
+     *
+     * @param message The error message.
+     * @return The error as JSON.
+     */
+    private static String error(String message) {
+        return new JSONObject().put("error", message).toString();
+    }
+
+    /**
+     * Parses the query of a URI into its parameters.
+     *
+     * @param rawQuery The raw query, {@code null} if there is none.
+     * @return The parameters by name.
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) return query;
+
+        for (String pair : rawQuery.split("&")) {
+            int i = pair.indexOf('=');
+            if (i <= 0) continue;
+            query.put(
+                URLDecoder.decode(pair.substring(0, i), StandardCharsets.UTF_8),
+                URLDecoder.decode(pair.substring(i + 1), StandardCharsets.UTF_8)
+            );
+        }
+        return query;
+    }
+
+    /**
+     * Parses a latitude or longitude.
+     *
+     * @param value The value of the parameter.
+     * @param limit The largest absolute value.
+     * @return The coordinate.
+     * @throws IllegalArgumentException if the coordinate is missing or not valid.
+     */
+    private static double parseCoordinate(String value, double limit) {
+        if (value == null) throw new IllegalArgumentException("lat and lon are required");
+
+        try {
+            double coordinate = Double.parseDouble(value);
+            if (Math.abs(coordinate) <= limit) return coordinate;
+        } catch (NumberFormatException e) {}
+        throw new IllegalArgumentException("Invalid coordinate: " + value);
+    }
+
+    /**
+     * Parses the units.
+     *
+     * @param value The value of the parameter.
+     * @return {@code true} if metric, {@code false} if imperial.
+     * @throws IllegalArgumentException if the units are not valid.
+     */
+    private static boolean parseUnits(String value) {
+        return switch (value) {
+            case "metric" -> true;
+            case "imperial" -> false;
+            default -> throw new IllegalArgumentException("units must be metric or imperial");
+        };
+    }
+}
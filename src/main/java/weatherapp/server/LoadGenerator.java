@@ -0,0 +1,173 @@
+package weatherapp.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code LoadGenerator} measures the throughput of a {@code ForecastServer}.
+ *
+ * <p>
+ * It sends {@code /forecast} requests for a fixed set of random points in Sweden,
+ * or for one given point, with a bounded amount of requests in flight, and prints the throughput, the latency percentiles
+ * and the amount of responses of every status.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -cp weatherapp.jar weatherapp.server.LoadGenerator
+ * [--url=http://localhost:8080] [--requests=10000] [--concurrency=64] [--points=50 | --point=lat,lon]}
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class LoadGenerator {
+    /**
+     * Bounds of the points, roughly Sweden.
+     */
+    private static final double MIN_LAT = 55.5, MAX_LAT = 68.5, MIN_LON = 11.5, MAX_LON = 23.5;
+
+    /**
+     * Runs the load and prints the result.
+     *
+     * @param args the command line arguments
+     * @throws InterruptedException if the thread is interrupted while waiting for the requests.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String url = "http://localhost:" + ForecastServer.DEFAULT_PORT;
+        int requests = 10_000, concurrency = 64, points = 50;
+        String point = null;
+
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2) continue;
+
+            switch (pair[0]) {
+                case "--url" -> url = pair[1];
+                case "--requests" -> requests = Integer.parseInt(pair[1]);
+                case "--concurrency" -> concurrency = Integer.parseInt(pair[1]);
+                case "--points" -> points = Integer.parseInt(pair[1]);
+                case "--point" -> point = pair[1];
+                default -> System.err.println("Unknown argument: " + arg);
+            }
+        }
+
+        String[] uris;
+        if (point != null) {
+            String[] latLon = point.split(",");
+            uris = new String[] {forecastURI(url, Double.parseDouble(latLon[0]), Double.parseDouble(latLon[1]))};
+        } else {
+            Random random = new Random(42);
+            uris = new String[points];
+            for (int i = 0; i < points; i++) {
+                double lat = MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+                double lon = MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON);
+                uris[i] = forecastURI(url, lat, lon);
+            }
+        }
+
+        System.out.println(run(uris, requests, concurrency));
+    }
+
+    /**
+     * Returns the forecast URI of a point.
+     *
+     * @param url The base URL of the server.
+     * @param lat Latitude of the point.
+     * @param lon Longitude of the point.
+     * @return The URI of the forecast.
+     */
+    private static String forecastURI(String url, double lat, double lon) {
+        return String.format(Locale.ROOT, "%s/forecast?lat=%.4f&lon=%.4f", url, lat, lon);
+    }
+
+    /**
+     * Sends the requests and waits until every response has been read.
+     *
+     * @param uris The forecast URIs, requested in turn.
+     * @param requests The amount of requests.
+     * @param concurrency The most requests in flight at the same time.
+     * @return A summary of the run.
+     * @throws InterruptedException if the thread is interrupted while waiting for the requests.
+     */
+    public static String run(String[] uris, int requests, int concurrency) throws InterruptedException {
+        int points = uris.length;
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        Semaphore permits = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        AtomicInteger completed = new AtomicInteger();
+        LongAdder bytes = new LongAdder();
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                permits.acquire();
+                HttpRequest request = HttpRequest.newBuilder(URI.create(uris[i % points])).GET().build();
+
+                executor.execute(() -> {
+                    long sent = System.nanoTime();
+                    int status;
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        status = response.statusCode();
+                        bytes.add(response.body().length);
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        status = -1;
+                    } finally {
+                        permits.release();
+                    }
+
+                    latencies[completed.getAndIncrement()] = System.nanoTime() - sent;
+                    statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                });
+            }
+        }
+
+        long wall = System.nanoTime() - start;
+        Arrays.sort(latencies);
+
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+
+        return String.format(Locale.ROOT,
+            "%d requests in %.1f ms with concurrency %d over %d points%n" +
+            "throughput %.1f req/s, %.1f MB/s%n" +
+            "latency p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms%n" +
+            "statuses %s (-1 is a failed connection)",
+            requests, wall / 1e6, concurrency, points,
+            requests / (wall / 1e9), bytes.sum() / (wall / 1e9) / 1e6,
+            percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99), percentile(latencies, 100),
+            counts
+        );
+    }
+
+    /**
+     * Returns a percentile of the sorted latencies.
+     *
+     * @param sorted The latencies in ascending order.
+     * @param percentile The percentile, 0 to 100.
+     * @return The latency in milliseconds.
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,261 @@
+package weatherapp.server;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.management.ThreadMXBean;
+
+import weatherapp.enums.Endpoint;
+import weatherapp.model.http.CircuitOpenException;
+import weatherapp.model.http.HttpTransport;
+import weatherapp.model.Settings;
+import weatherapp.model.ip.IP;
+import weatherapp.model.ip.IPGrabber;
+import weatherapp.model.weather.ForecastStore;
+import weatherapp.model.weather.SMHI;
+
+/**
+ * {@code RefreshLoadTest} measures how many refreshes per second one process sustains.
+ *
+ * <p>
+ * Every refresh runs the stages of a {@code Model} refresh: the public IP, its location,
+ * the SMHI forecast of the location, and the aggregation into one {@code Weather} per day.
+ * The location and forecast caches are bypassed, so every refresh runs every stage.
+ * The upstream is a {@code StubUpstream} started in the same process, or one given with {@code --upstream}.
+ * </p>
+ *
+ * <p>
+ * The refreshes run on a pool of {@code concurrency} platform threads after a warmup, and the throughput,
+ * the latency percentiles of every stage and the bytes allocated by every stage on its own thread are printed.
+ * The allocation of the whole process is printed as well, it includes the threads of the {@code HttpClient}
+ * and of the embedded stub. A failed stage ends its refresh and is counted, nothing is retried.
+ * </p>
+ *
+ * <p>
+ * The refreshes run on their own {@code HttpTransport} whose breakers never open, so every failure is a failure
+ * of the upstream and injected errors do not turn into instant rejections that skew the latencies.
+ * With {@code --breakers=true} the breakers of the application are used, and the requests they reject
+ * are counted apart from the failures.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -cp weatherapp.jar weatherapp.server.RefreshLoadTest [--refreshes=2000] [--concurrency=16]
+ * [--warmup=200] [--upstream=http://localhost:9090 | --replay=dir] [--latency=ms] [--jitter=ms]
+ * [--bandwidth=bytesPerSecond] [--error-rate=0.0] [--seed=42] [--breakers=false]}
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class RefreshLoadTest {
+    /**
+     * Latencies, allocated bytes and failures of one stage.
+     */
+    private static class Stage {
+        private final String name;
+        private final long[] latencies;
+        private final AtomicInteger count;
+        private final LongAdder allocated, failures, rejected;
+
+        private Stage(String name, int refreshes) {
+            this.name = name;
+            latencies = new long[refreshes];
+            count = new AtomicInteger();
+            allocated = new LongAdder();
+            failures = new LongAdder();
+            rejected = new LongAdder();
+        }
+
+        /**
+         * Records a completed run of the stage.
+         *
+         * @param nanos The latency.
+         * @param bytes The bytes allocated by the thread, negative if unknown.
+         */
+        private void record(long nanos, long bytes) {
+            latencies[count.getAndIncrement()] = nanos;
+            if (bytes > 0) allocated.add(bytes);
+        }
+    }
+
+    /**
+     * Runs the load and prints the result.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the stub can't be started.
+     * @throws InterruptedException if the thread is interrupted while waiting for the refreshes.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int refreshes = 2000, concurrency = 16, warmup = 200;
+        String upstream = null, directory = "src/jmh/resources/fixtures";
+        long latency = 0, jitter = 0, bandwidth = 0, seed = 42;
+        double errorRate = 0;
+        boolean breakers = false;
+
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2) continue;
+
+            switch (pair[0]) {
+                case "--refreshes" -> refreshes = Integer.parseInt(pair[1]);
+                case "--concurrency" -> concurrency = Integer.parseInt(pair[1]);
+                case "--warmup" -> warmup = Integer.parseInt(pair[1]);
+                case "--upstream" -> upstream = pair[1];
+                case "--replay" -> directory = pair[1];
+                case "--latency" -> latency = Long.parseLong(pair[1]);
+                case "--jitter" -> jitter = Long.parseLong(pair[1]);
+                case "--bandwidth" -> bandwidth = Long.parseLong(pair[1]);
+                case "--error-rate" -> errorRate = Double.parseDouble(pair[1]);
+                case "--seed" -> seed = Long.parseLong(pair[1]);
+                case "--breakers" -> breakers = Boolean.parseBoolean(pair[1]);
+                default -> System.err.println("Unknown argument: " + arg);
+            }
+        }
+
+        StubUpstream stub = null;
+        if (upstream == null) {
+            stub = new StubUpstream(0, Path.of(directory), false, Duration.ofMillis(latency), Duration.ofMillis(jitter),
+                bandwidth, errorRate, seed);
+            stub.start();
+            upstream = "http://localhost:" + stub.getPort();
+        }
+        for (Endpoint endpoint : Endpoint.values()) {
+            System.setProperty(endpoint.getProperty(), upstream + "/" + endpoint.getName());
+        }
+        HttpTransport.setDefault(HttpTransport.create(breakers ? HttpTransport.FAILURE_THRESHOLD : Integer.MAX_VALUE));
+
+        try {
+            if (warmup > 0) run(warmup, concurrency);
+            System.out.println(run(refreshes, concurrency));
+        } finally {
+            if (stub != null) stub.stop();
+        }
+    }
+
+    /**
+     * Runs the refreshes and waits until every refresh has completed or failed.
+     *
+     * @param refreshes The amount of refreshes.
+     * @param concurrency The amount of refreshes run at the same time.
+     * @return A summary of the run.
+     * @throws InterruptedException if the thread is interrupted while waiting for the refreshes.
+     */
+    public static String run(int refreshes, int concurrency) throws InterruptedException {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Settings settings = new Settings(true, false, false);
+
+        Stage ip = new Stage("ip", refreshes), geo = new Stage("geo", refreshes),
+              smhi = new Stage("smhi", refreshes), aggregate = new Stage("aggregate", refreshes),
+              total = new Stage("total", refreshes);
+        List<Stage> stages = List.of(ip, geo, smhi, aggregate, total);
+
+        long processBefore = threads.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency, Thread.ofPlatform().name("refresh-", 0).factory())) {
+            for (int i = 0; i < refreshes; i++) {
+                executor.execute(() -> {
+                    long refreshStart = System.nanoTime(), refreshBytes = threads.getCurrentThreadAllocatedBytes();
+                    long t = refreshStart, bytes = refreshBytes;
+                    Stage stage = ip;
+
+                    try {
+                        String ipAdress = IPGrabber.grabIpAdress();
+                        t = lap(ip, t, bytes, threads);
+                        bytes = threads.getCurrentThreadAllocatedBytes();
+
+                        stage = geo;
+                        IP location = IPGrabber.grabFullIP(ipAdress);
+                        t = lap(geo, t, bytes, threads);
+                        bytes = threads.getCurrentThreadAllocatedBytes();
+
+                        stage = smhi;
+                        SMHI client = new SMHI(settings);
+                        ForecastStore store = client.getForecast(location.getLon(), location.getLat());
+                        t = lap(smhi, t, bytes, threads);
+                        bytes = threads.getCurrentThreadAllocatedBytes();
+
+                        stage = aggregate;
+                        client.getWeather10D(store);
+                        lap(aggregate, t, bytes, threads);
+
+                        lap(total, refreshStart, refreshBytes, threads);
+                    } catch (CircuitOpenException e) {
+                        stage.rejected.increment();
+                        total.rejected.increment();
+                    } catch (IOException | RuntimeException e) {
+                        stage.failures.increment();
+                        total.failures.increment();
+                    }
+                });
+            }
+        }
+
+        long wall = System.nanoTime() - start;
+        long processBytes = threads.getTotalThreadAllocatedBytes() - processBefore;
+        double seconds = wall / 1e9;
+        int completed = total.count.get();
+
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+            "%d refreshes in %.1f ms with concurrency %d, %d failed, %d rejected by open breakers%n" +
+            "throughput %.1f refreshes/s%n" +
+            "%-10s %8s %9s %9s %9s %9s %12s %10s %8s %8s%n",
+            refreshes, wall / 1e6, concurrency, total.failures.sum(), total.rejected.sum(),
+            completed / seconds,
+            "stage", "count", "p50 ms", "p99 ms", "p999 ms", "max ms", "KB/refresh", "MB/s", "failed", "rejected"
+        ));
+
+        for (Stage stage : stages) {
+            int count = stage.count.get();
+            long[] sorted = Arrays.copyOf(stage.latencies, count);
+            Arrays.sort(sorted);
+
+            sb.append(String.format(Locale.ROOT, "%-10s %8d %9.2f %9.2f %9.2f %9.2f %12.1f %10.1f %8d %8d%n",
+                stage.name, count,
+                percentile(sorted, 50), percentile(sorted, 99), percentile(sorted, 99.9), percentile(sorted, 100),
+                count == 0 ? 0 : stage.allocated.sum() / 1024.0 / count, stage.allocated.sum() / seconds / 1e6,
+                stage.failures.sum(), stage.rejected.sum()
+            ));
+        }
+
+        sb.append(String.format(Locale.ROOT, "process allocation %.1f MB/s, %.1f KB/refresh (every thread, including the HttpClient and the stub)",
+            processBytes / seconds / 1e6, completed == 0 ? 0 : processBytes / 1024.0 / completed));
+        return sb.toString();
+    }
+
+    /**
+     * Records the latency and allocation of a stage that has completed.
+     *
+     * @param stage The stage.
+     * @param start The start of the stage from {@link System#nanoTime()}.
+     * @param startBytes The bytes allocated by the thread at the start of the stage.
+     * @param threads Reads the allocated bytes.
+     * @return The end of the stage, the start of the next.
+     */
+    private static long lap(Stage stage, long start, long startBytes, ThreadMXBean threads) {
+        long now = System.nanoTime();
+        stage.record(now - start, threads.getCurrentThreadAllocatedBytes() - startBytes);
+        return now;
+    }
+
+    /**
+     * Returns a percentile of the sorted latencies.
+     *
+     * @param sorted The latencies in ascending order.
+     * @param percentile The percentile, 0 to 100.
+     * @return The latency in milliseconds.
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
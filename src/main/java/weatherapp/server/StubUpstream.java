@@ -0,0 +1,467 @@
+package weatherapp.server;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import weatherapp.enums.Endpoint;
+
+/**
+ * {@code StubUpstream} stands in for the upstream APIs, so the application can be run and load tested offline.
+ *
+ * <p>
+ * Every {@code Endpoint} is served under its name, eg. {@code /smhi/api/category/...}, and the application
+ * is pointed at it with the system properties {@code weatherapp.endpoint.<name>=http://localhost:<port>/<name>},
+ * which are printed when the stub starts.
+ * </p>
+ *
+ * <ul>
+ * <li>Replay: a request is answered with the recording {@code <name>_<key>.json} of its exact path and query,
+ * where the key is the first 128 bits of the SHA-256 of the path and query in hex,
+ * otherwise with the first {@code <name>*.json} of the directory, so a directory with one response per endpoint,
+ * eg. the benchmark fixtures, answers every request.</li>
+ * <li>Record: every request is forwarded to the real API and the response is saved as its recording.</li>
+ * </ul>
+ *
+ * <p>
+ * The responses can be delayed by a latency with a uniform jitter, sent at a limited bandwidth
+ * and replaced by {@code 503} at an error rate. The random choices of a request are drawn from a random source
+ * seeded by the seed, the digest of the request and how many times the same request has been made before,
+ * so the same requests get the same delays and errors however the concurrent requests are scheduled.
+ * </p>
+ *
+ * <p>
+ * Usage: {@code java -cp weatherapp.jar weatherapp.server.StubUpstream [--port=9090]
+ * [--replay=dir | --record=dir] [--latency=ms] [--jitter=ms] [--bandwidth=bytesPerSecond] [--error-rate=0.0] [--seed=42]}
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class StubUpstream {
+    /**
+     * The default port of the stub.
+     */
+    public static final int DEFAULT_PORT = 9090;
+    /**
+     * The default directory of the recordings, the benchmark fixtures.
+     */
+    private static final String DEFAULT_DIRECTORY = "src/jmh/resources/fixtures";
+    /**
+     * System property of the JDK server that disables Nagle's algorithm on the connections,
+     * without it every response on a kept alive connection waits for the delayed ACK of the client.
+     */
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    /**
+     * The embedded server.
+     */
+    private final HttpServer server;
+    /**
+     * Executor that handles every request on its own virtual thread.
+     */
+    private final ExecutorService executor;
+    /**
+     * Directory of the recordings.
+     */
+    private final Path directory;
+    /**
+     * Forwards the requests to the real APIs when recording, {@code null} when replaying.
+     */
+    private final HttpClient upstream;
+    /**
+     * The recordings that have been read, by file.
+     */
+    private final Map<Path, byte[]> recordings;
+    /**
+     * Fixed latency and the largest extra latency, in milliseconds.
+     */
+    private final long latencyMillis, jitterMillis;
+    /**
+     * Bytes sent per second, 0 for no limit.
+     */
+    private final long bandwidth;
+    /**
+     * Share of the requests answered with {@code 503}.
+     */
+    private final double errorRate;
+    /**
+     * Seed of the jitter and the errors.
+     */
+    private final long seed;
+    /**
+     * Amount of times every request has been made, by digest.
+     */
+    private final Map<String, AtomicLong> occurrences;
+    /**
+     * Amount of requests and injected errors.
+     */
+    private final LongAdder requests, errors;
+
+    private static final Logger logger = LogManager.getLogger(StubUpstream.class);
+
+    /**
+     * Constructs a {@code StubUpstream} bound to the given port, it is not started.
+     *
+     * @param port The port to listen on, 0 for any free port.
+     * @param directory Directory of the recordings.
+     * @param record {@code true} to forward the requests and record the responses, {@code false} to replay.
+     * @param latency Fixed latency of every response.
+     * @param jitter The largest extra latency, chosen uniformly.
+     * @param bandwidth Bytes sent per second, 0 for no limit.
+     * @param errorRate Share of the requests answered with {@code 503}, 0 to 1.
+     * @param seed Seed of the jitter and the errors.
+     * @throws IOException if the port can't be bound.
+     */
+    public StubUpstream(int port, Path directory, boolean record, Duration latency, Duration jitter,
+                        long bandwidth, double errorRate, long seed) throws IOException {
+        this.directory = directory;
+        this.latencyMillis = latency.toMillis();
+        this.jitterMillis = jitter.toMillis();
+        this.bandwidth = bandwidth;
+        this.errorRate = errorRate;
+
+        upstream = record ? HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build() : null;
+        recordings = new ConcurrentHashMap<>();
+        this.seed = seed;
+        occurrences = new ConcurrentHashMap<>();
+        requests = new LongAdder();
+        errors = new LongAdder();
+
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) System.setProperty(NO_DELAY_PROPERTY, "true");
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stub-", 0).factory());
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts the stub on the argument port and blocks until the process is stopped.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the port can't be bound.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = DEFAULT_PORT;
+        String directory = DEFAULT_DIRECTORY;
+        boolean record = false;
+        long latency = 0, jitter = 0, bandwidth = 0, seed = 42;
+        double errorRate = 0;
+
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2) continue;
+
+            switch (pair[0]) {
+                case "--port" -> port = Integer.parseInt(pair[1]);
+                case "--replay" -> directory = pair[1];
+                case "--record" -> {
+                    directory = pair[1];
+                    record = true;
+                }
+                case "--latency" -> latency = Long.parseLong(pair[1]);
+                case "--jitter" -> jitter = Long.parseLong(pair[1]);
+                case "--bandwidth" -> bandwidth = Long.parseLong(pair[1]);
+                case "--error-rate" -> errorRate = Double.parseDouble(pair[1]);
+                case "--seed" -> seed = Long.parseLong(pair[1]);
+                default -> System.err.println("Unknown argument: " + arg);
+            }
+        }
+
+        Path dir = Path.of(directory);
+        if (record) Files.createDirectories(dir);
+
+        StubUpstream stub = new StubUpstream(port, dir, record, Duration.ofMillis(latency), Duration.ofMillis(jitter),
+            bandwidth, errorRate, seed);
+        stub.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::stop));
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            System.out.println("-D" + endpoint.getProperty() + "=" + stub.getBaseUrl(endpoint));
+        }
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Starts the stub.
+     */
+    public void start() {
+        server.start();
+        logger.info("Stub upstream {} {} on port {}", upstream != null ? "recording to" : "replaying", directory, getPort());
+    }
+
+    /**
+     * Stops the stub.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("Stub upstream stopped after {} requests, {} injected errors", requests.sum(), errors.sum());
+    }
+
+    /**
+     * Returns the port the stub listens on.
+     *
+     * @return The bound port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the base URL that points an endpoint at the stub.
+     *
+     * @param endpoint The endpoint.
+     * @return The value of the system property of the endpoint.
+     */
+    public String getBaseUrl(Endpoint endpoint) {
+        return "http://localhost:" + getPort() + "/" + endpoint.getName();
+    }
+
+    /**
+     * Returns the amount of handled requests.
+     *
+     * @return The amount of requests.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Handles a request to any endpoint.
+     *
+     * @param exchange The request and response.
+     * @throws IOException if the response can't be written.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+
+        String path = exchange.getRequestURI().getRawPath();
+        String query = exchange.getRequestURI().getRawQuery();
+        int slash = path.indexOf('/', 1);
+        String name = slash < 0 ? path.substring(1) : path.substring(1, slash);
+        String rest = (slash < 0 ? "" : path.substring(slash)) + (query != null ? "?" + query : "");
+
+        Endpoint endpoint;
+        try {
+            endpoint = Endpoint.getEndpoint(name);
+        } catch (IllegalArgumentException e) {
+            send(exchange, 404, error(e.getMessage()));
+            return;
+        }
+
+        byte[] digest = digest(endpoint.getName() + rest);
+        String key = HexFormat.of().formatHex(digest, 0, 16);
+        long occurrence = occurrences.computeIfAbsent(endpoint.getName() + "_" + key, k -> new AtomicLong()).getAndIncrement();
+        SplittableRandom random = new SplittableRandom((seed * 31 + ByteBuffer.wrap(digest).getLong()) * 31 + occurrence);
+
+        long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+        boolean fail = errorRate > 0 && random.nextDouble() < errorRate;
+        if (!sleep(delay)) return;
+
+        if (fail) {
+            errors.increment();
+            send(exchange, 503, error("Injected error"));
+            return;
+        }
+
+        Path file = directory.resolve(endpoint.getName() + "_" + key + ".json");
+        try {
+            byte[] body = upstream != null ? record(endpoint, rest, file) : replay(endpoint, file);
+            if (body == null) send(exchange, 404, error("No recording of " + endpoint.getName() + rest));
+            else send(exchange, 200, body);
+        } catch (UpstreamException e) {
+            send(exchange, e.status, e.body);
+        }
+    }
+
+    /**
+     * Returns the SHA-256 digest of a request.
+     *
+     * @param request The name of the endpoint, the path and the query.
+     * @return The digest.
+     */
+    private static byte[] digest(String request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the recording of a request, or the first recording of the endpoint.
+     * The first recording is then kept in memory as the recording of the request.
+     *
+     * @param endpoint The endpoint.
+     * @param file The recording of the exact request.
+     * @return The body, {@code null} if the endpoint has no recording.
+     * @throws IOException if a recording can't be read.
+     */
+    private byte[] replay(Endpoint endpoint, Path file) throws IOException {
+        byte[] body = read(file);
+        if (body != null) return body;
+
+        try (Stream<Path> files = Files.list(directory)) {
+            Path any = files
+                .filter(f -> f.getFileName().toString().startsWith(endpoint.getName()) && f.toString().endsWith(".json"))
+                .sorted()
+                .findFirst()
+                .orElse(null);
+            if (any == null) return null;
+
+            body = read(any);
+            recordings.put(file, body);
+            return body;
+        }
+    }
+
+    /**
+     * Reads a recording, it is kept in memory after the first read.
+     *
+     * @param file The recording.
+     * @return The body, {@code null} if the file does not exist.
+     * @throws IOException if the file can't be read.
+     */
+    private byte[] read(Path file) throws IOException {
+        byte[] body = recordings.get(file);
+        if (body != null || !Files.isRegularFile(file)) return body;
+
+        body = Files.readAllBytes(file);
+        recordings.put(file, body);
+        return body;
+    }
+
+    /**
+     * Forwards a request to the real API and saves a successful response as its recording.
+     *
+     * @param endpoint The endpoint.
+     * @param rest The path and query after the name of the endpoint.
+     * @param file The recording of the request.
+     * @return The body.
+     * @throws UpstreamException if the API answers with another status than 200.
+     * @throws IOException if the request fails or the recording can't be saved.
+     */
+    private byte[] record(Endpoint endpoint, String rest, Path file) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.getDefaultUrl() + rest))
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+
+        HttpResponse<byte[]> response;
+        try {
+            response = upstream.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request interrupted: " + request.uri());
+        }
+
+        if (response.statusCode() != 200) throw new UpstreamException(response.statusCode(), response.body());
+
+        Files.write(file, response.body());
+        recordings.put(file, response.body());
+        logger.info("Recorded {} as {}", request.uri(), file.getFileName());
+        return response.body();
+    }
+
+    /**
+     * Writes a JSON response at the bandwidth of the stub and closes the exchange.
+     *
+     * @param exchange The request and response.
+     * @param status The status code.
+     * @param body The body.
+     * @throws IOException if the response can't be written.
+     */
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (bandwidth <= 0) {
+                out.write(body);
+                return;
+            }
+
+            long start = System.nanoTime();
+            int chunk = (int) Math.max(1, Math.min(body.length, bandwidth / 20));
+            for (int off = 0; off < body.length; off += chunk) {
+                int len = Math.min(chunk, body.length - off);
+                out.write(body, off, len);
+                out.flush();
+
+                long due = start + (off + len) * 1_000_000_000L / bandwidth;
+                if (!sleep((due - System.nanoTime()) / 1_000_000)) return;
+            }
+        }
+    }
+
+    /**
+     * Sleeps the given time.
+     *
+     * @param millis The time to sleep, nothing happens if it is not positive.
+     * @return {@code false} if the sleep was interrupted.
+     */
+    private static boolean sleep(long millis) {
+        if (millis <= 0) return true;
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns an error body.
+     *
+     * @param message The error message.
+     * @return The error as JSON.
+     */
+    private static byte[] error(String message) {
+        return new JSONObject().put("error", message).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@code UpstreamException} carries a response of the real API that is not recorded.
+     */
+    private static class UpstreamException extends IOException {
+        private final int status;
+        private final byte[] body;
+
+        private UpstreamException(int status, byte[] body) {
+            super("HTTP " + status);
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
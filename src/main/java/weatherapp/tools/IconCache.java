@@ -0,0 +1,122 @@
+package weatherapp.tools;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.enums.WeatherDay;
+import weatherapp.enums.WeatherNight;
+import weatherapp.interfaces.WeatherType;
+
+/**
+ * {@code IconCache} is a class that holds the decoded and resized weather icons.
+ * Every {@code WeatherType} is read and resized once, after that the same {@code Icon}
+ * is shared by every label that shows it.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class IconCache {
+    /**
+     * The folder of the weather images in the resources folder.
+     */
+    private static final String FOLDER = "/weather/";
+    /**
+     * The factor the weather images are downscaled by.
+     */
+    private static final int DOWNSCALE = 3;
+    /**
+     * The loaded icons.
+     */
+    private static final Map<WeatherType, Icon> ICONS = new ConcurrentHashMap<>();
+    /**
+     * Amount of lookups that were, and were not, already loaded.
+     */
+    private static final LongAdder HITS = new LongAdder(), MISSES = new LongAdder();
+    /**
+     * Logger for the {@code IconCache} class.
+     */
+    private static final Logger logger = LogManager.getLogger(IconCache.class);
+
+    /**
+     * Returns the icon of the weather type, it is loaded the first time it is requested.
+     *
+     * @param type The weather type.
+     * @return The resized icon of the weather type.
+     * @throws IOException If the image is not found or can't be read.
+     */
+    public static Icon getIcon(WeatherType type) throws IOException {
+        Icon icon = ICONS.get(type);
+        if (icon != null) {
+            HITS.increment();
+            return icon;
+        }
+
+        try {
+            return ICONS.computeIfAbsent(type, IconCache::load);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads and resizes the image of the weather type.
+     *
+     * @param type The weather type.
+     * @return The resized icon.
+     */
+    private static Icon load(WeatherType type) {
+        MISSES.increment();
+        try {
+            return new ImageIcon(FileTools.getResizedImage(FileTools.getBufferedImage(FOLDER + type.getFileName()), DOWNSCALE));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new UncheckedIOException(new IOException("Could not read " + type.getFileName(), e));
+        }
+    }
+
+    /**
+     * Loads the icons of every {@code WeatherDay} and {@code WeatherNight} in parallel in the background.
+     *
+     * @return A future that completes when all icons are loaded.
+     */
+    public static CompletableFuture<Void> warmUp() {
+        return CompletableFuture.allOf(
+            Stream.concat(Stream.of(WeatherDay.values()), Stream.of(WeatherNight.values()))
+                .map(type -> CompletableFuture.runAsync(() -> {
+                    try {
+                        getIcon(type);
+                    } catch (IOException e) {
+                        logger.error(e.getMessage());
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)
+        ).thenRun(() -> logger.info("Weather icons loaded: {}", ICONS.size()));
+    }
+
+    /**
+     * Returns the amount of lookups that found an already loaded icon.
+     *
+     * @return The amount of hits.
+     */
+    public static long getHits() {
+        return HITS.sum();
+    }
+    /**
+     * Returns the amount of lookups that had to load the icon.
+     *
+     * @return The amount of misses.
+     */
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+}
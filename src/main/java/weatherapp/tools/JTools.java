@@ -13,6 +13,7 @@ import javax.swing.JButton;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 
+import weatherapp.interfaces.WeatherType;
 import weatherapp.tools.JTools;
 
 import java.io.IOException;
@@ -175,4 +176,18 @@ public class JTools {
             JOptionPane.showMessageDialog(null, "Missing weather images", "Missing image", JOptionPane.ERROR_MESSAGE);
         }
     }
+    /**
+     * Sets the cached icon of the weather type to a JLabel.
+     * The icon is shared with every other label showing the same weather type.
+     * 
+     * @param lbl The JLabel to set the image to.
+     * @param type The weather type of the image.
+     */
+    public static void setIconImage(JLabel lbl, WeatherType type) {
+        try {
+            lbl.setIcon(IconCache.getIcon(type));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null, "Missing weather images", "Missing image", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 } 
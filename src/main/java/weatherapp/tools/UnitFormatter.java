@@ -0,0 +1,115 @@
+package weatherapp.tools;
+
+import java.text.DecimalFormatSymbols;
+
+import weatherapp.enums.Unit;
+
+/**
+ * {@code UnitFormatter} is a class that formats values with their unit.
+ *
+ * <p>
+ * Only the variant that is asked for is converted, the value is rounded to
+ * a whole number or to one decimal without {@code String.format}.
+ * The formatted strings are cached per rounded value, unit and precision,
+ * so formatting a value that has been formatted before allocates nothing.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class UnitFormatter {
+    /**
+     * Largest rounded value, in whole numbers or tenths, that is cached.
+     */
+    private static final int RANGE = 2000;
+    /**
+     * The decimal separator of the default locale, the same one {@code String.format} uses.
+     */
+    private static final char SEPARATOR = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+    /**
+     * The cached strings, one table for every unit and precision.
+     * A table is created the first time it is used.
+     */
+    private static final String[][] CACHE = new String[Unit.values().length * 2][];
+
+    /**
+     * Formats a value with the unit.
+     *
+     * @param value The value in the API unit, Celsius or m/s.
+     * @param unit The unit to show the value in.
+     * @param precision If the value is shown with one decimal.
+     * @return The formatted value with the unit suffix.
+     */
+    public static String format(double value, Unit unit, boolean precision) {
+        double converted = unit.convert(value);
+        long rounded = precision ? roundHalfUp(converted * 10) : Math.round(converted);
+        boolean negativeZero = precision && rounded == 0 && converted < 0;
+
+        if (negativeZero || rounded < -RANGE || rounded > RANGE) {
+            return build(rounded, unit, precision, negativeZero);
+        }
+
+        String[] table = table(unit, precision);
+        int index = (int) rounded + RANGE;
+        String string = table[index];
+
+        if (string == null) {
+            string = build(rounded, unit, precision, false);
+            table[index] = string;
+        }
+        return string;
+    }
+
+    /**
+     * Returns the cache table of the unit and precision.
+     *
+     * @param unit The unit.
+     * @param precision If the value is shown with one decimal.
+     * @return The table of the unit and precision.
+     */
+    private static String[] table(Unit unit, boolean precision) {
+        int i = unit.ordinal() * 2 + (precision ? 1 : 0);
+        String[] table = CACHE[i];
+
+        if (table == null) {
+            table = new String[RANGE * 2 + 1];
+            CACHE[i] = table;
+        }
+        return table;
+    }
+
+    /**
+     * Rounds half away from zero, like {@code String.format} does.
+     *
+     * @param value The value to round.
+     * @return The rounded value.
+     */
+    private static long roundHalfUp(double value) {
+        return value < 0 ? -Math.round(-value) : Math.round(value);
+    }
+
+    /**
+     * Builds the string of a rounded value.
+     *
+     * @param rounded The value in whole numbers, or in tenths if {@code precision}.
+     * @param unit The unit.
+     * @param precision If the value is in tenths.
+     * @param negativeZero If a minus sign is shown before a zero, {@code String.format} shows -0.0.
+     * @return The formatted value with the unit suffix.
+     */
+    private static String build(long rounded, Unit unit, boolean precision, boolean negativeZero) {
+        StringBuilder sb = new StringBuilder(12);
+
+        if (!precision) {
+            return sb.append(rounded).append(unit.getSuffix()).toString();
+        }
+
+        if (rounded < 0 || negativeZero) sb.append('-');
+        long abs = Math.abs(rounded);
+
+        return sb.append(abs / 10)
+            .append(SEPARATOR)
+            .append(abs % 10)
+            .append(unit.getSuffix())
+            .toString();
+    }
+}
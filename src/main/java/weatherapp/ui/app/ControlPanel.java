@@ -26,6 +26,7 @@ import weatherapp.enums.Changes;
 import weatherapp.model.Model;
 import weatherapp.model.Settings;
 import weatherapp.ui.custom.AppleSwitch;
+import weatherapp.ui.logic.EdtDispatcher;
 
 
 public class ControlPanel extends JPanel implements PropertyChangeListener {
@@ -39,7 +40,7 @@ public class ControlPanel extends JPanel implements PropertyChangeListener {
 
     public ControlPanel(Model model) {
         this.model = model;
-        model.addPropertyChangeListener(this);
+        model.addPropertyChangeListener(EdtDispatcher.onEdt(this));
 
         setBorder(BorderFactory.createMatteBorder(0, 0, 0, 2, Color.BLACK));
         setLayout(new GridBagLayout());
@@ -53,17 +54,17 @@ public class ControlPanel extends JPanel implements PropertyChangeListener {
         lblPrecision = createJLabel(FONT_SMALL, NONE, "Precision");
         lblMetricImperial = createJLabel(FONT_SMALL, NONE, "Metric/Imperial");
 
-        btnChangeLight = createJButton(BTN_DIMENSION, "Light Mode", e -> model.changeTheme());
-        btnRefresh = createJButton(BTN_DIMENSION, "Refresh", e -> model.requestRefresh());
+        btnChangeLight = createJButton(BTN_DIMENSION, "Light Mode", e -> EdtDispatcher.offEdt(model::changeTheme));
+        btnRefresh = createJButton(BTN_DIMENSION, "Refresh", e -> EdtDispatcher.offEdt(model::requestRefresh));
 
         switchPrecision.addActionListener(e -> {
             logger.info("Precision toggled");
-            model.togglePrecision();
+            EdtDispatcher.offEdt(model::togglePrecision);
             repaint();
         });
         switchCF.addActionListener(e -> {
             logger.info("Degree toggled");
-            model.toggleMetric();
+            EdtDispatcher.offEdt(model::toggleMetric);
             repaint();
         });
 
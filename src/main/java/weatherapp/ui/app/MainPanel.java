@@ -13,28 +13,28 @@ import java.awt.GridBagLayout;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 
 import weatherapp.enums.Changes;
+import weatherapp.metrics.Histogram;
+import weatherapp.metrics.Metrics;
 import weatherapp.model.Model;
-import weatherapp.ui.panel.WeatherPanel;
+import weatherapp.ui.logic.EdtDispatcher;
+import weatherapp.ui.panel.WeatherList;
 
 public class MainPanel extends JPanel implements PropertyChangeListener {
+    private static final Histogram PUBLISH = Metrics.histogram("ui.publish");
+
     private final JScrollPane scrollPane;
-    private final JPanel pnlWeather;
-    private final GridBagConstraints con;
+    private final WeatherList weatherList;
     private final JLabel lblDate, lblDay, lblMaxTemp, lblMinTemp, lblType, lblWind, lblGust, lblLoading;
-    private List<WeatherPanel> weatherPnlsAdv;
     private Model model;
 
     public MainPanel(Model model) {
         this.model = model;
-        model.addPropertyChangeListener(this);
+        model.addPropertyChangeListener(EdtDispatcher.onEdt(this));
 
         lblDay = createJLabel(FONT_BIG, LBL_DIMENSION, "Day");
         lblDate = createJLabel(FONT_BIG, LBL_DIMENSION, "Date");
@@ -45,10 +45,9 @@ public class MainPanel extends JPanel implements PropertyChangeListener {
         lblWind = createJLabel(FONT_BIG, LBL_DIMENSION, "Wind Speed");
         lblLoading = createJLabel("/LoadingWheel.gif", NONE);
 
-        pnlWeather = new JPanel();
-        weatherPnlsAdv = model.getWeatherPanelsAdv();
+        weatherList = new WeatherList();
 
-        scrollPane = new JScrollPane(pnlWeather);
+        scrollPane = new JScrollPane(weatherList);
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
 
@@ -79,26 +78,12 @@ public class MainPanel extends JPanel implements PropertyChangeListener {
         // Change this to the middle of a {7} grid
         conMain.gridx = 3;
         add(lblLoading, conMain);
-
-        pnlWeather.setLayout(new GridBagLayout());
-        con = getDefaultCon();
-        con.fill = GridBagConstraints.BOTH;
     }
 
     private void updateWeathers() {
-        pnlWeather.removeAll();
-
-        for (int i = 0; i < weatherPnlsAdv.size(); i++) {
-            con.gridy = i;
-            pnlWeather.add(weatherPnlsAdv.get(i), con);
-        }
-
-        pnlWeather.revalidate();
-        pnlWeather.repaint();
-    }
-    private void refreshWeathers() {
-        weatherPnlsAdv = new ArrayList<>();
-        weatherPnlsAdv = model.getWeatherPanelsAdv();
+        long start = System.nanoTime();
+        weatherList.setWeathers(model.getSnapshot().days());
+        PUBLISH.recordSince(start);
     }
 
     @Override
@@ -111,13 +96,9 @@ public class MainPanel extends JPanel implements PropertyChangeListener {
             case REFRESHED -> {
                 scrollPane.setVisible(true);
                 lblLoading.setVisible(false);
-                refreshWeathers();
-                updateWeathers();
-            }
-            case SETTINGS_UPDATED -> {
-                weatherPnlsAdv.forEach(w -> w.update((model.getSettings())));
                 updateWeathers();
             }
+            case SETTINGS_UPDATED -> weatherList.update(model.getSnapshot().days());
             default -> {}
         }
     }
@@ -21,6 +21,7 @@ import weatherapp.model.Model;
 import weatherapp.model.ip.IP;
 import weatherapp.tools.FileTools;
 import weatherapp.ui.custom.Clock;
+import weatherapp.ui.logic.EdtDispatcher;
 
 import javax.swing.ImageIcon;
 
@@ -32,7 +33,7 @@ public class TopBarPanel extends JPanel implements PropertyChangeListener {
 
     public TopBarPanel(Model model) {
         this.model = model;
-        model.addPropertyChangeListener(this);
+        model.addPropertyChangeListener(EdtDispatcher.onEdt(this));
 
         lblLocation = createJLabel("/LoadingWheelSmall.gif", NONE);
         lblLocation.setFont(FONT_SMALL);
@@ -48,7 +49,6 @@ public class TopBarPanel extends JPanel implements PropertyChangeListener {
 
         clock = new Clock();
         clock.setFont(FONT_SMALL);
-        clock.getThread().start();
 
         GridBagConstraints con = getDefaultCon();
         setLayout(new GridBagLayout());
@@ -73,7 +73,7 @@ public class TopBarPanel extends JPanel implements PropertyChangeListener {
                 lblLocation.setText("");
             }
             case REFRESHED -> {
-                IP ip = model.getIp();
+                IP ip = model.getSnapshot().location();
                 lblLocation.setIcon(null);
                 lblLocation.setText(ip.getCity() + ", " + ip.getCountry());
             } 
@@ -6,47 +6,56 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import javax.swing.JToggleButton;
-import javax.swing.Timer;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+
+import weatherapp.interfaces.Animated;
+import weatherapp.ui.logic.Animator;
 
 /**
  * {@code AppleSwitch} is a custom JToggleButton that mimics the Apple switch found in iOS.
- * The switch animates when toggled on or off.
- * 
+ * The switch animates when toggled on or off, driven by the shared {@code Animator}.
+ *
  * @author Axel Lönnby Wesselgren
  */
-public class AppleSwitch extends JToggleButton {
+public class AppleSwitch extends JToggleButton implements Animated {
     /**
      * Default size
      */
     private static final int WIDTH = 60, HEIGHT = 25;
     /**
-     * The x-coordinate of the circle
+     * The time it takes the circle to move from one end to the other
+     */
+    private static final long DURATION_NANOS = 180_000_000;
+    /**
+     * The colors of the switch when it is on and off
      */
-    private int circleX;
+    private static final Color ON = new Color(50, 50, 50), OFF = Color.LIGHT_GRAY;
+    /**
+     * The size of the switch
+     */
+    private final int width, height;
     /**
      * The diameter of the circle
      */
     private int circleDiameter;
     /**
-     * The timer that animates the switch
+     * The position of the circle, from {@code 0} when off to {@code 1} when on
      */
-    private final Timer timer;
+    private double position;
     /**
-     * A boolean that indicates if the switch is animating
+     * The time of the last frame of the animation
      */
-    private boolean animating = false;
+    private long lastFrame;
 
     /**
      * Constructs an {@code AppleSwitch} instance with the specified width and height.
-     * 
+     *
      * @param width the width of the switch
      * @param height the height of the switch
      */
     public AppleSwitch(int width, int height) {
+        this.width = width;
+        this.height = height;
         setSettings(width, height);
-        timer = createTimer(width);
         addListener();
     }
     /**
@@ -58,16 +67,15 @@ public class AppleSwitch extends JToggleButton {
 
     /**
      * Sets the preferred size, and the focus, border, and content area painted properties.
-     * Also sets the circle diameter and x-coordinate.
-     * 
+     * Also sets the circle diameter.
+     *
      * <ul>
      *   <li>FocusPainted: {@code false}</li>
      *   <li>BorderPainted: {@code false}</li>
      *   <li>ContentAreaFilled: {@code false}</li>
      *   <li>CircleDiameter: {@code height - 5}</li>
-     *   <li>CircleX: {@code 2}</li>
      * </ul>
-     * 
+     *
      * @param width The preferred width
      * @param height The preferred height
      */
@@ -78,42 +86,32 @@ public class AppleSwitch extends JToggleButton {
         setContentAreaFilled(false);
 
         circleDiameter = height - 5;
-        this.circleX = 2;
     }
     /**
-     * Creates a timer that animates the switch.
-     * Every 10 milliseconds the circleX is incremented or decremented by 2.
-     * Depending on if the switch is selected or not.
-     * When the circleX reaches the end of the switch, the timer stops.
-     * 
-     * @return
+     * Adds an item listener to the switch.
+     * When the switch is selected or deselected, by a click or by {@code setSelected}, the animation starts.
      */
-    private Timer createTimer(int width) {
-        return new Timer(10, new ActionListener() {
-            public void actionPerformed(ActionEvent e) {
-                if (isSelected() && circleX < width - circleDiameter - 2) {
-                    circleX += 2;
-                } else if (!isSelected() && circleX > 2) {
-                    circleX -= 2;
-                } else {
-                    animating = false;
-                    timer.stop();
-                }
-                repaint();
-            }
+    private void addListener() {
+        addItemListener(e -> {
+            lastFrame = System.nanoTime();
+            Animator.start(this);
         });
     }
+
     /**
-     * Adds an action listener to the switch.
-     * When the switch is clicked and not animating, the timer starts.
+     * Moves the circle towards the end of the current state, by the time since the last frame.
+     *
+     * @param nowNanos the time of the frame
+     * @return {@code true} until the circle has reached the end
      */
-    private void addListener() {
-        addActionListener(e -> {
-            if (!animating) {
-                animating = true;
-                timer.start();
-            }
-        });
+    @Override
+    public boolean animate(long nowNanos) {
+        double step = (nowNanos - lastFrame) / (double) DURATION_NANOS;
+        lastFrame = nowNanos;
+
+        position = isSelected() ? Math.min(1, position + step) : Math.max(0, position - step);
+        repaint();
+        return position != (isSelected() ? 1 : 0);
     }
 
     @Override
@@ -121,10 +119,10 @@ public class AppleSwitch extends JToggleButton {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        Color color = isSelected() ? new Color(50, 50, 50) : Color.LIGHT_GRAY;
-        g2d.setColor(color);
-        g2d.fillRoundRect(0, 0, WIDTH, HEIGHT, HEIGHT, HEIGHT);
+        g2d.setColor(isSelected() ? ON : OFF);
+        g2d.fillRoundRect(0, 0, width, height, height, height);
 
+        int circleX = 2 + (int) Math.round(position * (width - circleDiameter - 4));
         g2d.setColor(Color.WHITE);
         g2d.fillOval(circleX, 2, circleDiameter, circleDiameter);
     }
@@ -1,87 +1,82 @@
 package weatherapp.ui.custom;
 
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
 import javax.swing.JLabel;
 
+import weatherapp.interfaces.TickListener;
+import weatherapp.ui.logic.WallClock;
+
 /**
- * {@code Clock} is a custom JLabel that displays the current time in HH:MM:SS format.
- * The time is updated every second using a thread.
- * 
+ * {@code Clock} is a custom JLabel that displays the current time in HH:MM:SS or HH:MM format.
+ * The time is updated by the shared {@code WallClock} while the label is displayable,
+ * every second, or every minute if the seconds are hidden.
+ *
  * @author Axel Lönnby Wesselgren
  */
-public class Clock extends JLabel implements Runnable {
-    private final Thread thread;
-    private int hours, minutes, seconds;
+public class Clock extends JLabel implements TickListener {
+    private static final DateTimeFormatter WITH_SECONDS = DateTimeFormatter.ofPattern("HH:mm:ss"),
+        WITHOUT_SECONDS = DateTimeFormatter.ofPattern("HH:mm");
+
+    private boolean showSeconds;
 
     /**
-     * Constructs a {@code Clock} instance with the {@code LocalTime.now()} as the initial time.
-     * The time is updated every second using a thread.
-     * Variables are updated according to the LocalTime.
+     * Constructs a {@code Clock} instance that shows the seconds, with {@code LocalTime.now()} as the initial time.
      */
     public Clock() {
-        thread = new Thread(this);
-
-        LocalTime time = LocalTime.now();
-        hours = time.getHour();
-        minutes = time.getMinute();
-        seconds = time.getSecond();
-
-        updateText();
+        showSeconds = true;
+        tick(LocalTime.now());
     }
 
     /**
-     * Updates the text of the {@code JLabel} to the current time in HH:MM:SS format.
-     * If the hours, minutes, or seconds are less than 10, a leading zero is added.
+     * Shows or hides the seconds, without seconds the clock is only updated every minute.
+     *
+     * @param showSeconds {@code true} to show the seconds
      */
-    private void updateText() {
-        String text = "";
+    public void setShowSeconds(boolean showSeconds) {
+        this.showSeconds = showSeconds;
 
-        if (hours < 10) text += "0";
-        text += hours + ":";
-        if (minutes < 10) text += "0";
-        text += minutes + ":";
-        if (seconds < 10) text += "0";
-        text += seconds;
-        
-        setText(text);
+        if (isDisplayable()) WallClock.subscribe(this, getUnit());
+        else tick(LocalTime.now());
     }
-
     /**
-     * Returns the thread that updates the time.
-     * 
-     * @return The thread that updates the time
+     * Returns whether the seconds are shown.
+     *
+     * @return {@code true} if the seconds are shown
      */
-    public Thread getThread() {
-        return thread;
+    public boolean isShowSeconds() {
+        return showSeconds;
     }
 
     /**
-     * Starts the thread that updates the time.
-     * Every second the seconds are incremented and variables are updated accordingly.
+     * Updates the text of the {@code JLabel} to the given time.
+     *
+     * @param now The time to show
      */
     @Override
-    public void run() {
-        while (!Thread.interrupted()) {
-            try {
-                Thread.sleep(1000);
-                seconds++;
-
-                if (seconds >= 60) {
-                    seconds = 0;
-                    minutes++;
-                }
-
-                if (minutes >= 60) {
-                    minutes = 0;
-                    hours++;
-                }
+    public void tick(LocalTime now) {
+        setText((showSeconds ? WITH_SECONDS : WITHOUT_SECONDS).format(now));
+    }
 
-                if (hours >= 24) {
-                    hours = 0;
-                }
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        WallClock.subscribe(this, getUnit());
+    }
+    @Override
+    public void removeNotify() {
+        WallClock.unsubscribe(this);
+        super.removeNotify();
+    }
 
-                updateText();
-            } catch (InterruptedException e) {}
-        }
+    /**
+     * Returns the unit the clock needs ticks of.
+     *
+     * @return {@code SECONDS} if the seconds are shown, otherwise {@code MINUTES}
+     */
+    private ChronoUnit getUnit() {
+        return showSeconds ? ChronoUnit.SECONDS : ChronoUnit.MINUTES;
     }
 }
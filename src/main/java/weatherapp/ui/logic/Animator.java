@@ -0,0 +1,71 @@
+package weatherapp.ui.logic;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.swing.Timer;
+
+import weatherapp.interfaces.Animated;
+import weatherapp.metrics.Counter;
+import weatherapp.metrics.Metrics;
+
+/**
+ * {@code Animator} is the shared frame clock of every animated component.
+ *
+ * <p>
+ * A single Swing {@code Timer} fires a frame every {@value #FRAME_MS} ms on the Event Dispatch Thread
+ * while anything is animating, and is stopped when the last animation has finished.
+ * Every frame passes the same time to all animations, so they interpolate by elapsed time
+ * and their speed does not depend on when the timer happens to fire.
+ * </p>
+ *
+ * <p>
+ * The frames are counted as {@code ui.animation.frames}.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class Animator {
+    /**
+     * Time between the frames, about 60 frames per second.
+     */
+    private static final int FRAME_MS = 16;
+
+    private static final Counter FRAMES = Metrics.counter("ui.animation.frames");
+
+    /**
+     * The running animations, only used on the EDT.
+     */
+    private static final Set<Animated> running = new LinkedHashSet<>();
+    /**
+     * Fires the frames.
+     */
+    private static final Timer timer = new Timer(FRAME_MS, e -> frame());
+
+    private Animator() {}
+
+    /**
+     * Starts animating a component, nothing happens if it is already animating.
+     *
+     * @param animated The component.
+     */
+    public static void start(Animated animated) {
+        EdtDispatcher.onEdt(() -> {
+            if (running.add(animated) && !timer.isRunning()) timer.start();
+        });
+    }
+
+    /**
+     * Advances every animation, removes the finished ones and stops the timer when none is left.
+     */
+    private static void frame() {
+        FRAMES.increment();
+        long now = System.nanoTime();
+
+        for (Animated animated : List.copyOf(running)) {
+            if (!animated.animate(now)) running.remove(animated);
+        }
+        if (running.isEmpty()) timer.stop();
+    }
+}
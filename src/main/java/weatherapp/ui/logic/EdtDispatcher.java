@@ -0,0 +1,65 @@
+package weatherapp.ui.logic;
+
+import java.beans.PropertyChangeListener;
+
+import javax.swing.SwingUtilities;
+
+import weatherapp.metrics.Histogram;
+import weatherapp.metrics.Metrics;
+
+/**
+ * {@code EdtDispatcher} moves work to the thread it belongs on.
+ *
+ * <p>
+ * Swing components are only touched on the Event Dispatch Thread (EDT), and the {@code Model}
+ * never runs on it. The {@code Model} fires its events on the thread that changed it, so every
+ * view registers its listener through {@link #onEdt(PropertyChangeListener)}, and every action of
+ * a view that calls the {@code Model} is run through {@link #offEdt(Runnable)}.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class EdtDispatcher {
+    /**
+     * Time from an event being fired to its listener running on the EDT.
+     */
+    private static final Histogram DISPATCH = Metrics.histogram("ui.dispatch.delay");
+
+    private EdtDispatcher() {}
+
+    /**
+     * Runs the task on the EDT, directly if it is called on the EDT.
+     *
+     * @param task The Swing work.
+     */
+    public static void onEdt(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) task.run();
+        else SwingUtilities.invokeLater(task);
+    }
+
+    /**
+     * Runs the task on a virtual thread if it is called on the EDT, otherwise directly.
+     *
+     * @param task The model work.
+     */
+    public static void offEdt(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) Thread.ofVirtual().name("model-action").start(task);
+        else task.run();
+    }
+
+    /**
+     * Returns a listener that delivers every event to the given listener on the EDT.
+     *
+     * @param listener The listener of a view.
+     * @return The listener to register on the {@code Model}.
+     */
+    public static PropertyChangeListener onEdt(PropertyChangeListener listener) {
+        return evt -> {
+            long fired = System.nanoTime();
+            onEdt(() -> {
+                DISPATCH.recordSince(fired);
+                listener.propertyChange(evt);
+            });
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package weatherapp.ui.logic;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import weatherapp.metrics.Counter;
+import weatherapp.metrics.Histogram;
+import weatherapp.metrics.Metrics;
+
+/**
+ * {@code EdtWatchdog} measures how quickly the Event Dispatch Thread (EDT) handles events
+ * and reports when it stalls.
+ *
+ * <p>
+ * Every {@value #PROBE_INTERVAL_MS} ms a probe is posted to the EDT, the time until it runs
+ * is recorded as {@code ui.edt.latency}. If a probe has waited longer than the threshold,
+ * the stack trace of the EDT is logged once, and the length of the stall is logged when the EDT runs again.
+ * </p>
+ *
+ * <p>
+ * The threshold is read from the system property {@value #THRESHOLD_PROPERTY} in milliseconds.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class EdtWatchdog {
+    /**
+     * System property for the stall threshold in milliseconds.
+     */
+    public static final String THRESHOLD_PROPERTY = "weatherapp.edt.stallThreshold";
+    /**
+     * Time between the probes.
+     */
+    private static final long PROBE_INTERVAL_MS = 100;
+    /**
+     * Default stall threshold.
+     */
+    private static final Duration THRESHOLD = Duration.ofMillis(500);
+
+    /**
+     * Latency of the probes and amount of stalls.
+     */
+    private static final Histogram LATENCY = Metrics.histogram("ui.edt.latency");
+    private static final Counter STALLS = Metrics.counter("ui.edt.stalls");
+
+    /**
+     * Time a probe waits before the EDT counts as stalled, in nanoseconds.
+     */
+    private final long thresholdNanos;
+    /**
+     * Posts the probes and checks them.
+     */
+    private final ScheduledExecutorService timer;
+    /**
+     * The EDT, read by the first probe.
+     */
+    private volatile Thread edt;
+    /**
+     * Time the waiting probe was posted, 0 if no probe is waiting.
+     */
+    private volatile long postedAt;
+    /**
+     * {@code true} if the current stall has been reported.
+     */
+    private volatile boolean reported;
+
+    private static final Logger logger = LogManager.getLogger(EdtWatchdog.class);
+
+    /**
+     * Constructs an {@code EdtWatchdog}, it is not started.
+     *
+     * @param threshold Time a probe waits before the EDT counts as stalled.
+     */
+    public EdtWatchdog(Duration threshold) {
+        thresholdNanos = threshold.toNanos();
+        timer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("edt-watchdog").daemon().factory());
+    }
+
+    /**
+     * Starts a watchdog with the threshold of {@value #THRESHOLD_PROPERTY}.
+     *
+     * @return The started {@code EdtWatchdog}.
+     */
+    public static EdtWatchdog startDefault() {
+        Duration threshold = THRESHOLD;
+        try {
+            threshold = Duration.ofMillis(Long.parseLong(System.getProperty(THRESHOLD_PROPERTY)));
+        } catch (NumberFormatException e) {}
+
+        EdtWatchdog watchdog = new EdtWatchdog(threshold);
+        watchdog.start();
+        return watchdog;
+    }
+
+    /**
+     * Starts posting the probes.
+     */
+    public void start() {
+        timer.scheduleAtFixedRate(this::check, PROBE_INTERVAL_MS, PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+    /**
+     * Stops posting the probes.
+     */
+    public void stop() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Posts a probe if none is waiting, otherwise reports the stall if the probe has waited too long.
+     */
+    private void check() {
+        long posted = postedAt;
+
+        if (posted == 0) {
+            long now = System.nanoTime();
+            postedAt = now;
+            SwingUtilities.invokeLater(() -> probe(now));
+        } else if (!reported && System.nanoTime() - posted > thresholdNanos) {
+            reported = true;
+            STALLS.increment();
+            logger.warn("EDT stalled for more than {} ms{}", thresholdNanos / 1_000_000, stackTrace());
+        }
+    }
+
+    /**
+     * Runs on the EDT and records how long the probe waited.
+     *
+     * @param posted Time the probe was posted.
+     */
+    private void probe(long posted) {
+        long waited = LATENCY.recordSince(posted);
+        edt = Thread.currentThread();
+
+        if (reported) logger.warn("EDT resumed after a stall of {} ms", waited / 1_000_000);
+        reported = false;
+        postedAt = 0;
+    }
+
+    /**
+     * Returns the stack trace of the EDT.
+     *
+     * @return The stack trace as text, one frame per line.
+     */
+    private String stackTrace() {
+        Thread thread = edt;
+        if (thread == null) return ", the EDT has not run yet";
+
+        StringBuilder sb = new StringBuilder(", stack trace of ").append(thread.getName()).append(':');
+        for (StackTraceElement frame : thread.getStackTrace()) {
+            sb.append("\n\tat ").append(frame);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,137 @@
+package weatherapp.ui.logic;
+
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.Timer;
+
+import weatherapp.interfaces.TickListener;
+import weatherapp.metrics.Histogram;
+import weatherapp.metrics.Metrics;
+
+/**
+ * {@code WallClock} is the shared ticker of every time-driven component.
+ *
+ * <p>
+ * A single Swing {@code Timer} is scheduled to fire just after the next wall-clock second,
+ * or minute if no listener needs seconds. Every delay is computed from the current time,
+ * so errors never add up, and the timer is stopped while nothing is subscribed.
+ * The listeners are called on the Event Dispatch Thread (EDT), once per new second or minute.
+ * </p>
+ *
+ * <p>
+ * How late the ticks are after the second boundary is recorded as {@code ui.clock.lateness}.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class WallClock {
+    /**
+     * Time waited after the boundary, so a tick never sees the previous second.
+     */
+    private static final long MARGIN_MS = 2;
+
+    /**
+     * Time from the second boundary to the tick.
+     */
+    private static final Histogram LATENESS = Metrics.histogram("ui.clock.lateness");
+
+    /**
+     * The unit and the last delivered time of every listener, only used on the EDT.
+     */
+    private static final Map<TickListener, Subscription> subscriptions = new LinkedHashMap<>();
+    /**
+     * Fires the next tick, {@code null} until the first subscription.
+     */
+    private static Timer timer;
+
+    /**
+     * The unit of a listener and the time it was last called with.
+     */
+    private static final class Subscription {
+        private final ChronoUnit unit;
+        private LocalTime last;
+
+        private Subscription(ChronoUnit unit, LocalTime last) {
+            this.unit = unit;
+            this.last = last;
+        }
+    }
+
+    private WallClock() {}
+
+    /**
+     * Subscribes a listener, it is called with the current time directly and then on every new second or minute.
+     * Subscribing a listener again replaces its unit.
+     *
+     * @param listener The listener.
+     * @param unit {@link ChronoUnit#SECONDS} or {@link ChronoUnit#MINUTES}.
+     * @throws IllegalArgumentException if the unit is not supported.
+     */
+    public static void subscribe(TickListener listener, ChronoUnit unit) {
+        if (unit != ChronoUnit.SECONDS && unit != ChronoUnit.MINUTES) {
+            throw new IllegalArgumentException("Unsupported unit " + unit);
+        }
+
+        EdtDispatcher.onEdt(() -> {
+            LocalTime now = LocalTime.now().truncatedTo(unit);
+            subscriptions.put(listener, new Subscription(unit, now));
+            listener.tick(now);
+            schedule();
+        });
+    }
+    /**
+     * Unsubscribes a listener, the timer stops when the last listener is gone.
+     *
+     * @param listener The listener.
+     */
+    public static void unsubscribe(TickListener listener) {
+        EdtDispatcher.onEdt(() -> {
+            subscriptions.remove(listener);
+            schedule();
+        });
+    }
+
+    /**
+     * Calls the listeners whose second or minute has changed and schedules the next tick.
+     */
+    private static void tick() {
+        LocalTime now = LocalTime.now();
+        LATENESS.record(now.getNano());
+
+        for (Map.Entry<TickListener, Subscription> entry : List.copyOf(subscriptions.entrySet())) {
+            Subscription subscription = entry.getValue();
+            LocalTime time = now.truncatedTo(subscription.unit);
+            if (time.equals(subscription.last)) continue;
+
+            subscription.last = time;
+            entry.getKey().tick(time);
+        }
+        schedule();
+    }
+
+    /**
+     * Schedules the timer just after the next boundary of the finest subscribed unit, or stops it.
+     */
+    private static void schedule() {
+        if (subscriptions.isEmpty()) {
+            if (timer != null) timer.stop();
+            return;
+        }
+
+        boolean seconds = subscriptions.values().stream().anyMatch(s -> s.unit == ChronoUnit.SECONDS);
+        LocalTime now = LocalTime.now();
+        long elapsed = now.getNano() / 1_000_000 + (seconds ? 0 : now.getSecond() * 1000L);
+        int delay = (int) ((seconds ? 1000 : 60_000) - elapsed + MARGIN_MS);
+
+        if (timer == null) {
+            timer = new Timer(delay, e -> tick());
+            timer.setRepeats(false);
+        }
+        timer.setInitialDelay(delay);
+        timer.restart();
+    }
+}
@@ -0,0 +1,318 @@
+package weatherapp.ui.panel;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.beans.PropertyChangeListener;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.event.ChangeListener;
+
+import weatherapp.metrics.Histogram;
+import weatherapp.metrics.Metrics;
+import weatherapp.model.weather.Weather;
+
+/**
+ * {@code WeatherList} is a scrollable list of days that only creates the rows that can be seen.
+ *
+ * <p>
+ * Every day has a row offset, only the days that intersect the visible part of the viewport exist
+ * as {@code WeatherPanel} components. A panel is created when its day scrolls into view and
+ * released when it scrolls out, so the amount of components, their memory and the layout cost
+ * depend on the height of the viewport and not on the amount of days.
+ * </p>
+ *
+ * <p>
+ * A collapsed day has the height of the first measured panel, an expanded day keeps the height
+ * its panel was measured with. Which days are expanded is kept by the list, so a day that is
+ * scrolled out and in again is still expanded.
+ * </p>
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+public class WeatherList extends JPanel implements Scrollable {
+    /**
+     * Pixels scrolled by one step of the mouse wheel or the arrows.
+     */
+    private static final int UNIT_INCREMENT = 16;
+    /**
+     * Height of a collapsed day until a panel has been measured.
+     */
+    private static final int DEFAULT_HEIGHT = 54;
+
+    /**
+     * Time to create the panels of the days that scrolled into view.
+     */
+    private static final Histogram BUILD = Metrics.histogram("ui.panels.build");
+
+    /**
+     * The days of the list.
+     */
+    private List<Weather> weathers;
+    /**
+     * Height of every day, and the offset of every day with the total height last.
+     */
+    private int[] heights, offsets;
+    /**
+     * The expanded days.
+     */
+    private final BitSet expanded;
+    /**
+     * The panels of the visible days by index.
+     */
+    private final Map<Integer, WeatherPanel> live;
+    /**
+     * Height of a collapsed day.
+     */
+    private int collapsedHeight;
+    /**
+     * Relayouts the list when a panel is expanded or collapsed.
+     */
+    private final PropertyChangeListener expansionListener;
+    /**
+     * Updates the visible days when the viewport scrolls.
+     */
+    private final ChangeListener scrollListener;
+    /**
+     * The viewport the list is shown in, {@code null} if it is not in one.
+     */
+    private JViewport viewport;
+
+    /**
+     * Constructs an empty {@code WeatherList}.
+     */
+    public WeatherList() {
+        super(null);
+
+        weathers = List.of();
+        heights = new int[0];
+        offsets = new int[1];
+        expanded = new BitSet();
+        live = new HashMap<>();
+        collapsedHeight = DEFAULT_HEIGHT;
+
+        expansionListener = evt -> {
+            WeatherPanel panel = (WeatherPanel) evt.getSource();
+            live.forEach((i, p) -> {
+                if (p == panel) expanded.set(i, panel.isExpanded());
+            });
+            revalidate();
+            repaint();
+        };
+        scrollListener = e -> updateRows();
+    }
+
+    /**
+     * Replaces the days of the list, every day starts collapsed.
+     *
+     * @param weathers The days to show.
+     */
+    public void setWeathers(List<Weather> weathers) {
+        this.weathers = List.copyOf(weathers);
+
+        live.values().forEach(this::release);
+        live.clear();
+        expanded.clear();
+
+        heights = new int[this.weathers.size()];
+        Arrays.fill(heights, collapsedHeight);
+        computeOffsets();
+
+        if (viewport != null) viewport.setViewPosition(new Point());
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Replaces the days with the same days in new settings, the expanded days stay expanded.
+     * Only the visible days are redrawn, the others are read when they are created.
+     * Days that don't match the current days are set with {@link #setWeathers(List)}.
+     *
+     * @param weathers The days in the new settings.
+     */
+    public void update(List<Weather> weathers) {
+        if (weathers.size() != this.weathers.size()) {
+            setWeathers(weathers);
+            return;
+        }
+
+        this.weathers = List.copyOf(weathers);
+        live.forEach((i, p) -> p.update(this.weathers.get(i)));
+    }
+
+    /**
+     * Returns the amount of days that exist as components.
+     *
+     * @return The amount of live panels.
+     */
+    public int getLiveCount() {
+        return live.size();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (getParent() instanceof JViewport parent) {
+            viewport = parent;
+            viewport.addChangeListener(scrollListener);
+        }
+    }
+    @Override
+    public void removeNotify() {
+        if (viewport != null) viewport.removeChangeListener(scrollListener);
+        viewport = null;
+        super.removeNotify();
+    }
+
+    @Override
+    public void doLayout() {
+        boolean changed = false;
+
+        for (Map.Entry<Integer, WeatherPanel> entry : live.entrySet()) {
+            int height = entry.getValue().getPreferredSize().height;
+            if (heights[entry.getKey()] != height) {
+                heights[entry.getKey()] = height;
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            computeOffsets();
+            Container parent = getParent();
+            if (parent != null) parent.revalidate();
+        }
+        updateRows();
+    }
+
+    /**
+     * Creates the panels of the days that are visible, releases the others and places the panels.
+     */
+    private void updateRows() {
+        Rectangle visible = getVisibleRect();
+        int first = rowAt(visible.y), last = rowAt(visible.y + Math.max(visible.height, 1) - 1);
+        if (visible.height == 0) last = first - 1;
+
+        int before = live.size();
+        Iterator<Map.Entry<Integer, WeatherPanel>> it = live.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, WeatherPanel> entry = it.next();
+            if (entry.getKey() < first || entry.getKey() > last) {
+                release(entry.getValue());
+                it.remove();
+            }
+        }
+
+        boolean removed = live.size() != before;
+
+        long start = System.nanoTime();
+        boolean created = false;
+        for (int i = first; i <= last && i < weathers.size(); i++) {
+            WeatherPanel panel = live.get(i);
+            if (panel == null) {
+                panel = create(i);
+                live.put(i, panel);
+                created = true;
+            }
+            panel.setBounds(0, offsets[i], getWidth(), heights[i]);
+            panel.validate();
+        }
+        if (created) BUILD.recordSince(start);
+        if (created || removed) repaint();
+    }
+
+    /**
+     * Creates the panel of a day.
+     *
+     * @param i The index of the day.
+     * @return The panel, added to the list.
+     */
+    private WeatherPanel create(int i) {
+        WeatherPanel panel = new WeatherPanel(weathers.get(i));
+        if (expanded.get(i)) panel.setExpanded(true);
+
+        int height = panel.getPreferredSize().height;
+        if (!expanded.get(i) && height != collapsedHeight) {
+            collapsedHeight = height;
+            for (int j = 0; j < heights.length; j++) {
+                if (!expanded.get(j)) heights[j] = height;
+            }
+            computeOffsets();
+            Container parent = getParent();
+            if (parent != null) parent.revalidate();
+        }
+        heights[i] = height;
+
+        panel.addPropertyChangeListener(WeatherPanel.EXPANDED, expansionListener);
+        add(panel);
+        return panel;
+    }
+
+    /**
+     * Removes the panel of a day that is no longer visible.
+     *
+     * @param panel The panel to release.
+     */
+    private void release(Component panel) {
+        panel.removePropertyChangeListener(WeatherPanel.EXPANDED, expansionListener);
+        remove(panel);
+    }
+
+    /**
+     * Computes the offset of every day from the heights.
+     */
+    private void computeOffsets() {
+        offsets = new int[heights.length + 1];
+        for (int i = 0; i < heights.length; i++) offsets[i + 1] = offsets[i] + heights[i];
+    }
+
+    /**
+     * Returns the day at a y coordinate.
+     *
+     * @param y The y coordinate in the list.
+     * @return The index of the day, clamped to the days of the list.
+     */
+    private int rowAt(int y) {
+        int i = Arrays.binarySearch(offsets, 0, heights.length, y);
+        if (i < 0) i = -i - 2;
+        return Math.max(0, Math.min(i, heights.length - 1));
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int width = viewport != null ? viewport.getExtentSize().width : 0;
+        return new Dimension(width, offsets[heights.length]);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return UNIT_INCREMENT;
+    }
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -4,9 +4,9 @@ import javax.swing.BorderFactory;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
-import javax.swing.SwingUtilities;
 
-import weatherapp.model.Settings;
+import weatherapp.metrics.Counter;
+import weatherapp.metrics.Metrics;
 import weatherapp.model.weather.Timestamp;
 import weatherapp.model.weather.Weather;
 import weatherapp.tools.JTools;
@@ -27,6 +27,11 @@ import java.awt.Insets;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
+import java.lang.ref.SoftReference;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * {@code WeatherPanel} is a custom {@code JPanel} that displays weather information.
  * The panel contains a main panel and a dropdown panel.
@@ -45,9 +50,21 @@ import java.awt.event.MouseEvent;
  * <li>Maximum gust speed</li>
  * </ul>
  * 
+ * <p>The hourly rows are built the first time the panel is expanded.
+ * While the panel is collapsed they are only softly reachable,
+ * so they are released if memory runs low and built again on the next expand.
+ * 
  * @author Axel Lönnby Wesselgren
  */
 public class WeatherPanel extends JPanel {
+    /**
+     * The name of the property that is fired when the panel is expanded or collapsed
+     */
+    public static final String EXPANDED = "expanded";
+    /**
+     * The amount of times hourly rows have been built
+     */
+    private static final Counter HOURS_BUILT = Metrics.counter("ui.hours.built");
     /**
      * The original color of the panel before hovering
      */
@@ -60,15 +77,32 @@ public class WeatherPanel extends JPanel {
      * A boolean that indicates if the mouse is hovering over the panel
      */
     private boolean hovering;
+    /**
+     * A boolean that indicates if the hourly labels need new text before they are shown
+     */
+    private boolean hoursStale;
 
-    private final JPanel pnlMain, pnlDropdown;
+    /**
+     * The hourly rows while the panel is expanded, {@code null} while it is collapsed
+     */
+    private HourRows hours;
+    /**
+     * The hourly rows while the panel is collapsed, cleared by the garbage collector if memory runs low
+     */
+    private SoftReference<HourRows> hoursRef;
+
+    private final JPanel pnlMain;
     private final JScrollPane slpDropdown;
     private final JLabel 
-    lblHour, lblTemp, lblType, 
-    lblTypeImg, lblGustI, lblWindI, 
-    lblWind, lblGust, lblDay,
+    lblTypeImg, lblWind, lblGust, lblDay,
     lblDate, lblMinTemp, lblMaxTemp;
 
+    /**
+     * The dropdown panel with the hourly rows and the value labels of every hour,
+     * in the same order as the timestamps.
+     */
+    private record HourRows(JPanel panel, List<JLabel> temps, List<JLabel> winds, List<JLabel> gusts) {}
+
     /**
      * Constructs a {@code WeatherPanel} instance with the specified {@code Weather} instance.
      * 
@@ -82,21 +116,12 @@ public class WeatherPanel extends JPanel {
         pnlMain.setPreferredSize(new Dimension(pnlMain.getWidth(), 50));
         pnlMain.setBorder(BorderFactory.createMatteBorder(2, 2, 2, 2, Color.BLACK));
 
-        pnlDropdown = new JPanel();
-        pnlDropdown.setLayout(new GridBagLayout());
-        
-        slpDropdown = new JScrollPane(pnlDropdown);
+        slpDropdown = new JScrollPane();
         slpDropdown.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_NEVER);
         slpDropdown.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         slpDropdown.setBorder(BorderFactory.createMatteBorder(0, 2, 2, 2, Color.BLACK));
         slpDropdown.setVisible(false);
 
-        lblHour = createJLabel(FONT_BIG, LBL_DIMENSION, "Hour");
-        lblTemp = createJLabel(FONT_BIG, LBL_DIMENSION, "Temperature");
-        lblType = createJLabel(FONT_BIG, LBL_DIMENSION, "Type");
-        lblGustI = createJLabel(FONT_BIG, LBL_DIMENSION, "Gust");
-        lblWindI = createJLabel(FONT_SMALL, LBL_DIMENSION, "Wind Speed");
-        
         lblDay = createJLabel(FONT_SMALL, LBL_DIMENSION, toPascal(weather.getDate().getDayOfWeek().toString()));
         lblDate = createJLabel(FONT_SMALL, LBL_DIMENSION, weather.getDate().toString());
         lblMinTemp = createJLabel(FONT_SMALL, LBL_DIMENSION, weather.getMinT());
@@ -105,13 +130,12 @@ public class WeatherPanel extends JPanel {
         lblGust = createJLabel(FONT_SMALL, LBL_DIMENSION, weather.getGustMax());
 
         lblTypeImg = new JLabel();
-        JTools.setIconImage(lblTypeImg, "/weather/" + weather.getWeatherType().getFileName());
+        JTools.setIconImage(lblTypeImg, weather.getWeatherType());
 
         pnlMain.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
-                slpDropdown.setVisible(!slpDropdown.isVisible());
-                SwingUtilities.updateComponentTreeUI(WeatherPanel.this);
+                setExpanded(!isExpanded());
             }
             @Override
             public void mouseExited(MouseEvent e) {
@@ -129,9 +153,7 @@ public class WeatherPanel extends JPanel {
                 pnlMain.setBackground(Color.GRAY);
             }
         });
-        
-        addTimestamps();
-        
+
         setLayout(new GridBagLayout());
         GridBagConstraints con = getDefaultCon();
 
@@ -156,7 +178,7 @@ public class WeatherPanel extends JPanel {
     }
 
     /**
-     * Adds the timestamps to the dropdown panel.
+     * Builds the dropdown panel with the timestamps.
      * The timestamps are displayed in a grid layout.
      * The timestamps are displayed in the following order:
      * <ul>
@@ -166,18 +188,23 @@ public class WeatherPanel extends JPanel {
      * <li>Wind speed</li>
      * <li>Gust speed</li>
      * </ul>
+     * 
+     * @return the hourly rows
      */
-    private void addTimestamps() {
+    private HourRows buildHours() {
+        HOURS_BUILT.increment();
+        HourRows hours = new HourRows(new JPanel(new GridBagLayout()), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
         int y = 1;
         GridBagConstraints outerCon = getDefaultCon();
         outerCon.insets = new Insets(5, 15, 10, 0);
 
-        addRowComps(outerCon, 0, pnlDropdown, 
-            lblHour,
-            lblType,
-            lblTemp,
-            lblWindI,
-            lblGustI
+        addRowComps(outerCon, 0, hours.panel(), 
+            createJLabel(FONT_BIG, LBL_DIMENSION, "Hour"),
+            createJLabel(FONT_BIG, LBL_DIMENSION, "Type"),
+            createJLabel(FONT_BIG, LBL_DIMENSION, "Temperature"),
+            createJLabel(FONT_SMALL, LBL_DIMENSION, "Wind Speed"),
+            createJLabel(FONT_BIG, LBL_DIMENSION, "Gust")
         );
 
         for (Timestamp t : weather.getTimeStamps()) {
@@ -187,13 +214,17 @@ public class WeatherPanel extends JPanel {
             JLabel lblGust = new JLabel(t.getGust());
             JLabel lblWeather = new JLabel();
 
-            JTools.setIconImage(lblWeather, "/weather/" + t.getWeatherFileName());
+            hours.temps().add(lblTemp);
+            hours.winds().add(lblWind);
+            hours.gusts().add(lblGust);
+
+            JTools.setIconImage(lblWeather, t.getWeatherType());
 
             GridBagConstraints con = getDefaultCon();
             con.gridy = y++;
             con.insets = new Insets(0, 15, 5, 0);
 
-            addRowComps(con, 0, pnlDropdown,
+            addRowComps(con, 0, hours.panel(),
                 lblTime,
                 lblWeather,
                 lblTemp,
@@ -201,26 +232,76 @@ public class WeatherPanel extends JPanel {
                 lblGust
             );
         }
+        return hours;
     }
 
     /**
-     * Updates the {@code WeatherPanel} with the specified {@code Settings} instance.
-     * The weather information is updated with the new settings.
-     * The labels are updated with the new weather information.
-     * The dropdown panel is removed and the timestamps are added again in order to update the timestamps.
+     * Updates the {@code WeatherPanel} with the same day in new settings.
+     * Only the text of the existing value labels is rewritten, no components are created.
+     * The hourly labels of a collapsed dropdown are rewritten when it is expanded.
      * 
-     * @param settings
+     * @param weather the weather object of the same day with the new settings
      */
-    public void update(Settings settings) {
-        weather.setSettings(settings);
+    public void update(Weather weather) {
+        this.weather = weather;
 
         lblMaxTemp.setText(weather.getMaxT());
         lblMinTemp.setText(weather.getMinT());
         lblWind.setText(weather.getWindSpeedAvg());
         lblGust.setText(weather.getGustMax());
 
-        pnlDropdown.removeAll();
-        addTimestamps();
-        pnlDropdown.repaint();
+        if (hours != null) updateHours();
+        else hoursStale = true;
+    }
+
+    /**
+     * Returns whether the hourly dropdown is shown.
+     * 
+     * @return {@code true} if the panel is expanded
+     */
+    public boolean isExpanded() {
+        return slpDropdown.isVisible();
+    }
+    /**
+     * Shows or hides the hourly dropdown and fires {@value #EXPANDED} if it changed.
+     * 
+     * @param expanded {@code true} to show the dropdown
+     */
+    public void setExpanded(boolean expanded) {
+        if (expanded == isExpanded()) return;
+
+        if (expanded) {
+            hours = hoursRef == null ? null : hoursRef.get();
+            if (hours == null) {
+                hours = buildHours();
+                hoursRef = new SoftReference<>(hours);
+                hoursStale = false;
+            }
+            if (hoursStale) updateHours();
+            slpDropdown.setViewportView(hours.panel());
+        } else {
+            hours = null;
+            slpDropdown.setViewportView(null);
+        }
+
+        slpDropdown.setVisible(expanded);
+        revalidate();
+        repaint();
+        firePropertyChange(EXPANDED, !expanded, expanded);
+    }
+
+    /**
+     * Rewrites the text of the hourly value labels of the shown rows using the current settings.
+     */
+    private void updateHours() {
+        hoursStale = false;
+
+        List<Timestamp> timestamps = weather.getTimeStamps();
+        for (int i = 0; i < timestamps.size(); i++) {
+            Timestamp t = timestamps.get(i);
+            hours.temps().get(i).setText(t.getTemp());
+            hours.winds().get(i).setText(t.getWindSpeed());
+            hours.gusts().get(i).setText(t.getGust());
+        }
     }
 }
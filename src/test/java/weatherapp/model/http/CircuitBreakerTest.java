@@ -0,0 +1,133 @@
+package weatherapp.model.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import weatherapp.enums.CircuitState;
+
+/**
+ * Tests the state machine of {@code CircuitBreaker} on a clock that only moves when the test moves it.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+class CircuitBreakerTest {
+    private static final Duration OPEN_TIME = Duration.ofSeconds(30);
+
+    private long now;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        now = 1_000_000_000L;
+        breaker = new CircuitBreaker("test", 3, OPEN_TIME, () -> now);
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param duration The time that passes.
+     */
+    private void advance(Duration duration) {
+        now += duration.toNanos();
+    }
+
+    /**
+     * Fails requests until the breaker opens.
+     */
+    private void open() throws CircuitOpenException {
+        for (int i = 0; i < 3; i++) {
+            breaker.acquire();
+            breaker.onFailure();
+        }
+    }
+
+    @Test
+    void staysClosedBelowThreshold() throws CircuitOpenException {
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+        breaker.acquire();
+    }
+
+    @Test
+    void successResetsFailuresInARow() throws CircuitOpenException {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+        breaker.acquire();
+    }
+
+    @Test
+    void opensAtThresholdAndRejectsWithRemainingTime() throws CircuitOpenException {
+        open();
+        assertEquals(CircuitState.OPEN, breaker.getState());
+
+        advance(Duration.ofSeconds(10));
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, breaker::acquire);
+        assertEquals(Duration.ofSeconds(20), e.getRetryAfter());
+    }
+
+    @Test
+    void letsOneTrialThroughAfterOpenTime() throws CircuitOpenException {
+        open();
+        advance(OPEN_TIME);
+
+        breaker.acquire();
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, breaker::acquire);
+        assertEquals(OPEN_TIME, e.getRetryAfter());
+    }
+
+    @Test
+    void successfulTrialCloses() throws CircuitOpenException {
+        open();
+        advance(OPEN_TIME);
+        breaker.acquire();
+        breaker.onSuccess();
+
+        assertEquals(CircuitState.CLOSED, breaker.getState());
+        breaker.acquire();
+        breaker.acquire();
+    }
+
+    @Test
+    void failedTrialOpensAgainForAWholeOpenTime() throws CircuitOpenException {
+        open();
+        advance(OPEN_TIME);
+        breaker.acquire();
+        breaker.onFailure();
+
+        assertEquals(CircuitState.OPEN, breaker.getState());
+        advance(OPEN_TIME.minusNanos(1));
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+
+        advance(Duration.ofNanos(1));
+        breaker.acquire();
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void trialThatNeverReportsIsReplaced() throws CircuitOpenException {
+        open();
+        advance(OPEN_TIME);
+        breaker.acquire();
+
+        advance(OPEN_TIME.minusSeconds(1));
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+
+        advance(Duration.ofSeconds(1));
+        breaker.acquire();
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState());
+    }
+}
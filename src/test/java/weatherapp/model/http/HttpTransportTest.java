@@ -0,0 +1,135 @@
+package weatherapp.model.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import weatherapp.enums.CircuitState;
+
+/**
+ * Tests that {@code HttpTransport} reports the bodies of its responses to the {@code CircuitBreaker} of the host.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+class HttpTransportTest {
+    private static final byte[] BODY = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private CountDownLatch release;
+    private HttpTransport transport;
+    private String base;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        release = new CountDownLatch(1);
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+
+        server.createContext("/ok", exchange -> {
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.createContext("/truncated", exchange -> {
+            exchange.sendResponseHeaders(200, 1000);
+            exchange.getResponseBody().write(BODY);
+            exchange.getResponseBody().flush();
+            exchange.close();
+        });
+        server.createContext("/stalled", exchange -> {
+            exchange.sendResponseHeaders(200, 1000);
+            exchange.getResponseBody().write(BODY);
+            exchange.getResponseBody().flush();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+
+        server.start();
+        base = "http://localhost:" + server.getAddress().getPort();
+        transport = new HttpTransport(Duration.ofSeconds(2), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Requests a URL and reads the whole body.
+     *
+     * @param path The path to request.
+     * @return The body.
+     * @throws IOException if the request or the body fails.
+     */
+    private byte[] read(String path) throws IOException {
+        try (InputStream in = transport.get(base + path)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void completeBodiesKeepTheBreakerClosed() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(BODY, read("/ok"));
+        }
+        assertEquals(CircuitState.CLOSED, transport.getBreaker("localhost").getState());
+    }
+
+    @Test
+    void truncatedBodiesOpenTheBreaker() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IOException.class, () -> read("/truncated"));
+        }
+
+        assertEquals(CircuitState.OPEN, transport.getBreaker("localhost").getState());
+        assertThrows(CircuitOpenException.class, () -> read("/ok"));
+    }
+
+    @Test
+    void stalledBodiesTimeOutAndOpenTheBreaker() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpTimeoutException.class, () -> read("/stalled"));
+        }
+
+        assertEquals(CircuitState.OPEN, transport.getBreaker("localhost").getState());
+    }
+
+    @Test
+    void bodyClosedEarlyCountsAsSuccess() throws IOException {
+        transport.getBreaker("localhost").onFailure();
+        transport.getBreaker("localhost").onFailure();
+
+        try (InputStream in = transport.get(base + "/ok")) {
+            in.read();
+        }
+        transport.getBreaker("localhost").onFailure();
+
+        assertEquals(CircuitState.CLOSED, transport.getBreaker("localhost").getState());
+    }
+}
@@ -0,0 +1,107 @@
+package weatherapp.model.refresh;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+import org.junit.jupiter.api.Test;
+
+import weatherapp.model.http.CircuitOpenException;
+
+/**
+ * Tests the backoff and jitter bounds of {@code RetryPolicy} with a random source chosen by the test.
+ *
+ * @author Axel Lönnby Wesselgren
+ */
+class RetryPolicyTest {
+    private static final Duration BASE = Duration.ofSeconds(1), MAX = Duration.ofMinutes(5);
+
+    /**
+     * A random source that always draws the lowest or the highest value.
+     *
+     * @param highest {@code true} to draw the highest value.
+     * @return The random source.
+     */
+    private static RandomGenerator fixed(boolean highest) {
+        return new RandomGenerator() {
+            @Override
+            public long nextLong() {
+                return 0;
+            }
+            @Override
+            public long nextLong(long bound) {
+                return highest ? bound - 1 : 0;
+            }
+        };
+    }
+
+    @Test
+    void lowestJitterIsHalfOfTheBackoff() {
+        RetryPolicy policy = new RetryPolicy(BASE, MAX, () -> fixed(false));
+
+        assertEquals(Duration.ofMillis(500), policy.delay(0));
+        assertEquals(Duration.ofMillis(1000), policy.delay(1));
+        assertEquals(Duration.ofMillis(2000), policy.delay(2));
+        assertEquals(Duration.ofSeconds(150), policy.delay(20));
+    }
+
+    @Test
+    void highestJitterIsTheWholeBackoff() {
+        RetryPolicy policy = new RetryPolicy(BASE, MAX, () -> fixed(true));
+
+        assertEquals(Duration.ofMillis(1000), policy.delay(0));
+        assertEquals(Duration.ofMillis(4000), policy.delay(2));
+        assertEquals(Duration.ofMillis(256000), policy.delay(8));
+        assertEquals(MAX, policy.delay(9));
+    }
+
+    @Test
+    void delaysStayWithinBoundsForEveryAttempt() {
+        Random random = new Random(42);
+        RetryPolicy policy = new RetryPolicy(BASE, MAX, () -> random);
+
+        for (int attempt = 0; attempt < 100; attempt++) {
+            long ceiling = Math.min(MAX.toMillis(), attempt < 20 ? BASE.toMillis() << attempt : Long.MAX_VALUE);
+            for (int i = 0; i < 100; i++) {
+                long delay = policy.delay(attempt).toMillis();
+                assertTrue(delay >= ceiling / 2 && delay <= ceiling, "attempt " + attempt + ": " + delay);
+            }
+        }
+    }
+
+    @Test
+    void largeAndNegativeAttemptsDoNotOverflow() {
+        RetryPolicy policy = new RetryPolicy(BASE, MAX, () -> fixed(true));
+
+        assertEquals(MAX, policy.delay(Integer.MAX_VALUE));
+        assertEquals(BASE, policy.delay(-1));
+    }
+
+    @Test
+    void maxBelowBaseIsRaisedToBase() {
+        RetryPolicy policy = new RetryPolicy(Duration.ofSeconds(10), Duration.ofSeconds(1), () -> fixed(true));
+
+        assertEquals(Duration.ofSeconds(10), policy.delay(5));
+    }
+
+    @Test
+    void openBreakerIsWaitedForPlusJitter() {
+        RetryPolicy policy = new RetryPolicy(BASE, MAX, () -> fixed(true));
+        CircuitOpenException open = new CircuitOpenException("smhi", Duration.ofSeconds(20));
+
+        assertEquals(Duration.ofMillis(20500), policy.delay(0, open));
+    }
+
+    @Test
+    void shortOpenBreakerUsesTheBackoff() {
+        RetryPolicy policy = new RetryPolicy(BASE, MAX, () -> fixed(true));
+        CircuitOpenException open = new CircuitOpenException("smhi", Duration.ofMillis(100));
+
+        assertEquals(Duration.ofMillis(4000), policy.delay(2, open));
+        assertEquals(Duration.ofMillis(4000), policy.delay(2, new IOException("reset")));
+    }
+}